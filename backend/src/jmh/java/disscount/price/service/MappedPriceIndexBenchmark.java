@@ -0,0 +1,128 @@
+package disscount.price.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * "Current price of EAN X in store Y" through {@link MappedPriceIndex} versus the obvious
+ * heap structure, a HashMap from EAN string to a HashMap from store key to BigDecimal.
+ * Both hold the same synthetic day: eanCount EANs, each priced in storesPerEan of 300
+ * stores across 6 chains. Lookups cycle through a fixed random mix of hits and misses.
+ * <p>
+ * Run with {@code mvn -Pjmh test-compile exec:exec}, adding JMH options through
+ * {@code -Djmh.args="..."}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappedPriceIndexBenchmark {
+
+    private static final int CHAINS = 6;
+    private static final int STORES_PER_CHAIN = 50;
+    private static final int LOOKUPS = 1 << 16;
+
+    @Param({"100000", "500000"})
+    private int eanCount;
+
+    @Param({"20"})
+    private int storesPerEan;
+
+    private Path file;
+    private MappedPriceIndex mapped;
+    private Map<String, Map<String, BigDecimal>> baseline;
+
+    private String[] lookupEans;
+    private String[] lookupChains;
+    private String[] lookupStores;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        SplittableRandom random = new SplittableRandom(42);
+
+        List<String[]> stores = new ArrayList<>();
+        for (int chain = 0; chain < CHAINS; chain++) {
+            for (int store = 0; store < STORES_PER_CHAIN; store++) {
+                stores.add(new String[]{"chain" + chain, "S" + store});
+            }
+        }
+
+        String[] eans = new String[eanCount];
+        for (int i = 0; i < eanCount; i++) {
+            eans[i] = Long.toString(3_850_000_000_000L + i * 7919L);
+        }
+
+        file = Files.createTempFile("price-index-bench", ".idx");
+        baseline = new HashMap<>();
+        try (MappedPriceIndex.Writer writer = MappedPriceIndex.writer(file, LocalDate.now(), stores, eanCount)) {
+            for (String ean : eans) {
+                Map<String, BigDecimal> prices = new HashMap<>();
+                for (int i = 0; i < storesPerEan; i++) {
+                    String[] store = stores.get(random.nextInt(stores.size()));
+                    BigDecimal price = BigDecimal.valueOf(50 + random.nextInt(5_000), 2);
+                    if (prices.putIfAbsent(store[0] + "/" + store[1], price) == null) {
+                        writer.add(ean, store[0], store[1], price);
+                    }
+                }
+                baseline.put(ean, prices);
+            }
+        }
+        mapped = MappedPriceIndex.open(file);
+
+        lookupEans = new String[LOOKUPS];
+        lookupChains = new String[LOOKUPS];
+        lookupStores = new String[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            String[] store = stores.get(random.nextInt(stores.size()));
+            // New String instances, as parsed from a request, so no cached hash codes
+            lookupEans[i] = new String(eans[random.nextInt(eanCount)]);
+            lookupChains[i] = new String(store[0]);
+            lookupStores[i] = new String(store[1]);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public int mappedIndex() {
+        int i = next++ & (LOOKUPS - 1);
+        return mapped.priceCents(lookupEans[i], lookupChains[i], lookupStores[i]).orElse(-1);
+    }
+
+    @Benchmark
+    public int hashMapBaseline() {
+        int i = next++ & (LOOKUPS - 1);
+        Map<String, BigDecimal> prices = baseline.get(lookupEans[i]);
+        BigDecimal price = prices == null ? null : prices.get(lookupChains[i] + "/" + lookupStores[i]);
+        return price == null ? -1 : price.movePointRight(2).intValue();
+    }
+}
@@ -0,0 +1,18 @@
+package disscount.common.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * One keyset page. nextCursor is null on the last page; otherwise pass it back as
+ * the cursor parameter to continue after the last item.
+ */
+@Data
+@Builder
+public class CursorPageDto<T> {
+
+    private List<T> items;
+    private String nextCursor;
+}
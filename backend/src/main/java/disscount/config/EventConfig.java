@@ -0,0 +1,26 @@
+package disscount.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.ApplicationEventMulticaster;
+import org.springframework.context.event.SimpleApplicationEventMulticaster;
+import org.springframework.context.support.AbstractApplicationContext;
+
+/**
+ * Isolates synchronous event listeners from each other. A price ingest fans out to the
+ * indexes, statistics, discount detection, deal feed and alerts in turn; without an error
+ * handler the first listener to throw would skip all later ones and fail the ingest call
+ * after its data had already committed. Failures are logged and the next listener runs.
+ */
+@Slf4j
+@Configuration
+public class EventConfig {
+
+    @Bean(name = AbstractApplicationContext.APPLICATION_EVENT_MULTICASTER_BEAN_NAME)
+    public ApplicationEventMulticaster applicationEventMulticaster() {
+        SimpleApplicationEventMulticaster multicaster = new SimpleApplicationEventMulticaster();
+        multicaster.setErrorHandler(e -> log.error("Event listener failed", e));
+        return multicaster;
+    }
+}
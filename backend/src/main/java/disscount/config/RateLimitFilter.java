@@ -0,0 +1,134 @@
+package disscount.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import disscount.util.SecurityUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rejects requests over their route's rate limit with 429 and Retry-After. It sits in the
+ * security chain right after bearer authentication, so the user ID is known, and before
+ * user provisioning, so a rejected request never opens a transaction or touches the
+ * database. Allowed and rejected requests are counted per rule in rate_limit.requests,
+ * and rate_limit.keys gauges the tracked buckets.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private final boolean enabled;
+    private final List<LimitedRoute> routes;
+    private final ObjectMapper objectMapper;
+
+    public RateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry, ObjectMapper objectMapper) {
+        this.enabled = properties.isEnabled();
+        this.objectMapper = objectMapper;
+        this.routes = properties.getRules().stream()
+                .map(rule -> new LimitedRoute(rule,
+                        new TokenBucketLimiter(rule.getCapacity(), rule.getRefillPerMinute(), properties.getMaxKeys()),
+                        meterRegistry))
+                .toList();
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain chain
+    ) throws ServletException, IOException {
+        LimitedRoute route = enabled ? match(request) : null;
+        if (route == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        long waitNanos = route.limiter().tryAcquire(keyOf(route.rule(), request), System.nanoTime());
+        if (waitNanos == 0) {
+            route.allowed().increment();
+            chain.doFilter(request, response);
+            return;
+        }
+
+        route.rejected().increment();
+        reject(response, Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1)));
+    }
+
+    @Scheduled(fixedDelayString = "${rate-limit.evict-interval-ms:60000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        routes.forEach(route -> route.limiter().evictIdle(now));
+    }
+
+    private LimitedRoute match(HttpServletRequest request) {
+        String method = request.getMethod().toUpperCase(Locale.ROOT);
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (LimitedRoute route : routes) {
+            RateLimitProperties.Rule rule = route.rule();
+            if ((rule.getMethods().isEmpty() || rule.getMethods().contains(method))
+                    && rule.getPaths().stream().anyMatch(pattern -> PATH_MATCHER.match(pattern, path))) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    private static String keyOf(RateLimitProperties.Rule rule, HttpServletRequest request) {
+        if (rule.getKey() == RateLimitProperties.KeyType.USER) {
+            String userId = SecurityUtils.getCurrentUserIdOptional().map(UUID::toString).orElse(null);
+            if (userId != null) {
+                return "u:" + userId;
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    // Written directly: a sendError would redispatch to /error through the security chain
+    private void reject(HttpServletResponse response, long retryAfterSeconds) throws IOException {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.TOO_MANY_REQUESTS, "Too many requests");
+        problem.setType(URI.create("urn:disscount:rate-limited"));
+        problem.setTitle("Previše zahtjeva");
+        problem.setProperty("timestamp", Instant.now());
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), problem);
+    }
+
+    private record LimitedRoute(RateLimitProperties.Rule rule, TokenBucketLimiter limiter,
+                                Counter allowed, Counter rejected) {
+
+        LimitedRoute(RateLimitProperties.Rule rule, TokenBucketLimiter limiter, MeterRegistry meterRegistry) {
+            this(rule, limiter,
+                    Counter.builder("rate_limit.requests").tag("rule", rule.getName()).tag("outcome", "allowed")
+                            .register(meterRegistry),
+                    Counter.builder("rate_limit.requests").tag("rule", rule.getName()).tag("outcome", "rejected")
+                            .register(meterRegistry));
+            Gauge.builder("rate_limit.keys", limiter, TokenBucketLimiter::size).tag("rule", rule.getName())
+                    .register(meterRegistry);
+        }
+    }
+}
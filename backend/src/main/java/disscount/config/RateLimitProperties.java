@@ -0,0 +1,47 @@
+package disscount.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Per-route rate limits (rate-limit.* in application.properties). A request is limited
+ * by the first rule whose method and path pattern match it; unmatched requests pass.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // Upper bound on tracked buckets per rule; keeps memory flat under key churn
+    private int maxKeys = 100_000;
+
+    private List<Rule> rules = new ArrayList<>();
+
+    public enum KeyType {
+        // Client address (after trusted proxy headers)
+        IP,
+        // Authenticated user ID, falling back to the client address for anonymous requests
+        USER
+    }
+
+    @Data
+    public static class Rule {
+
+        private String name;
+        // Empty matches every method
+        private Set<String> methods = Set.of();
+        // Ant-style, e.g. /api/**
+        private List<String> paths = new ArrayList<>();
+        private KeyType key = KeyType.IP;
+        // Burst size
+        private int capacity;
+        private double refillPerMinute;
+    }
+}
@@ -0,0 +1,14 @@
+package disscount.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled jobs (daily price ingest and the batch jobs that follow it). They run
+ * on Boot's ThreadPoolTaskScheduler, sized by spring.task.scheduling.pool.size, so one slow
+ * job does not hold up the others.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,5 +1,6 @@
 package disscount.config;
 
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
@@ -23,6 +24,7 @@ import org.springframework.security.web.SecurityFilterChain;
 public class SecurityConfig {
 
     private final UserProvisioningFilter userProvisioningFilter;
+    private final RateLimitFilter rateLimitFilter;
 
     @Bean
     public JwtDecoder jwtDecoder(
@@ -45,7 +47,11 @@ public class SecurityConfig {
             .csrf(csrf -> csrf.disable())
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(authz -> authz
+                // Async redispatches (SSE streams) were authorized on the original request
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers(HttpMethod.POST, "/api/contact").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/products/search").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/prices/leaderboard").permitAll()
                 .requestMatchers(
                     "/actuator/health",
                     "/v3/api-docs/**",
@@ -62,7 +68,9 @@ public class SecurityConfig {
                     res.sendError(HttpServletResponse.SC_FORBIDDEN, "Forbidden"))
             )
             .oauth2ResourceServer(oauth2 -> oauth2.jwt(Customizer.withDefaults()))
-            .addFilterAfter(userProvisioningFilter, BearerTokenAuthenticationFilter.class);
+            // Rate limiting needs the authenticated user but must reject before provisioning opens a transaction
+            .addFilterAfter(rateLimitFilter, BearerTokenAuthenticationFilter.class)
+            .addFilterAfter(userProvisioningFilter, RateLimitFilter.class);
 
         return http.build();
     }
@@ -0,0 +1,119 @@
+package disscount.config;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-key token buckets without locks. Each bucket is one AtomicLong holding its
+ * "theoretical arrival time" (GCRA): the instant the bucket will be full again. Taking a
+ * token advances it by one refill interval with a CAS. A request is refused while that
+ * instant lies more than a full bucket's worth of intervals ahead. This behaves exactly
+ * like a token bucket of the given capacity and refill rate, with no refill bookkeeping.
+ * <p>
+ * Keys are spread over independent stripes, each with its own size cap and idle sweep, so
+ * evicting or a flood of new keys in one stripe never stalls the others. Buckets that are
+ * full again are indistinguishable from new ones and are dropped by {@link #evictIdle}.
+ * When a stripe is full of active buckets, a new key replaces the bucket closest to full,
+ * so a flood of new keys loosens limiting a little but never locks out clients.
+ */
+final class TokenBucketLimiter {
+
+    private static final int STRIPES = 64;
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final int maxKeysPerStripe;
+    private final ConcurrentHashMap<String, AtomicLong>[] stripes;
+
+    @SuppressWarnings("unchecked")
+    TokenBucketLimiter(int capacity, double refillPerMinute, int maxKeys) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Rate limit capacity must be at least 1, was " + capacity);
+        }
+        // Also rejects NaN; the interval must be at least 1 ns and the burst must fit a long
+        if (!(refillPerMinute > 0) || refillPerMinute > 60_000_000_000d) {
+            throw new IllegalArgumentException("Rate limit refill per minute must be in (0, 6e10], was " + refillPerMinute);
+        }
+        this.intervalNanos = (long) (60_000_000_000L / refillPerMinute);
+        // Headroom for nowNanos + burst + interval in tryAcquire
+        if (intervalNanos > (Long.MAX_VALUE / 4) / capacity) {
+            throw new IllegalArgumentException("Rate limit burst too long: capacity " + capacity
+                    + " at " + refillPerMinute + " per minute");
+        }
+        this.burstNanos = intervalNanos * capacity;
+        this.maxKeysPerStripe = Math.max(1, maxKeys / STRIPES);
+        this.stripes = new ConcurrentHashMap[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+        }
+    }
+
+    /**
+     * Takes one token from key's bucket.
+     * @return 0 if a token was taken, else nanoseconds until one will be available
+     */
+    long tryAcquire(String key, long nowNanos) {
+        ConcurrentHashMap<String, AtomicLong> stripe = stripes[Math.floorMod(key.hashCode() * 0x9E3779B9, STRIPES)];
+        AtomicLong bucket = stripe.get(key);
+        if (bucket == null) {
+            if (stripe.size() >= maxKeysPerStripe) {
+                evictIdle(stripe, nowNanos);
+                if (stripe.size() >= maxKeysPerStripe) {
+                    evictClosestToFull(stripe);
+                }
+            }
+            bucket = stripe.computeIfAbsent(key, k -> new AtomicLong(nowNanos));
+        }
+
+        while (true) {
+            long fullAt = bucket.get();
+            long next = Math.max(fullAt, nowNanos) + intervalNanos;
+            long wait = next - burstNanos - nowNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Drops buckets that have refilled completely. A request racing with the removal may
+     * get one token from a fresh bucket, which is harmless.
+     */
+    void evictIdle(long nowNanos) {
+        for (ConcurrentHashMap<String, AtomicLong> stripe : stripes) {
+            evictIdle(stripe, nowNanos);
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (ConcurrentHashMap<String, AtomicLong> stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    private static void evictIdle(ConcurrentHashMap<String, AtomicLong> stripe, long nowNanos) {
+        stripe.values().removeIf(bucket -> bucket.get() - nowNanos <= 0);
+    }
+
+    // Forgetting the bucket that refills soonest gives its key the fewest extra tokens
+    private static void evictClosestToFull(ConcurrentHashMap<String, AtomicLong> stripe) {
+        String closest = null;
+        long closestFullAt = 0;
+        for (Map.Entry<String, AtomicLong> entry : stripe.entrySet()) {
+            long fullAt = entry.getValue().get();
+            if (closest == null || fullAt - closestFullAt < 0) {
+                closest = entry.getKey();
+                closestFullAt = fullAt;
+            }
+        }
+        if (closest != null) {
+            stripe.remove(closest);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package disscount.contactMessage.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ContactUnreadCountDto {
+
+    private int unreadCount;
+    // True when there are more unread messages than unreadCount; show e.g. "999+"
+    private boolean capped;
+}
@@ -1,10 +1,14 @@
 package disscount.contactMessage.rest;
 
+import disscount.common.dto.CursorPageDto;
 import disscount.contactMessage.dto.ContactMessageDto;
+import disscount.contactMessage.dto.ContactUnreadCountDto;
 import disscount.contactMessage.service.ContactMessageService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Slice;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -14,6 +18,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
@@ -32,6 +37,34 @@ public class AdminContactController {
         return ResponseEntity.ok(contactMessageService.list(includeDeleted));
     }
 
+    @Operation(summary = "Contact inbox, newest first, by cursor; filter by read state, deleted and creation day (admin only)")
+    @GetMapping("/inbox")
+    public ResponseEntity<CursorPageDto<ContactMessageDto>> inbox(
+            @RequestParam(required = false) Boolean read,
+            @RequestParam(defaultValue = "false") boolean deleted,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(contactMessageService.getInbox(read, deleted, from, to, cursor, limit));
+    }
+
+    @Operation(summary = "Full-text search of contact messages, best match first (admin only)")
+    @GetMapping("/search")
+    public ResponseEntity<Slice<ContactMessageDto>> search(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "false") boolean deleted,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(contactMessageService.search(q, deleted, page, size));
+    }
+
+    @Operation(summary = "Number of unread contact messages for the admin badge (admin only)")
+    @GetMapping("/unread-count")
+    public ResponseEntity<ContactUnreadCountDto> getUnreadCount() {
+        return ResponseEntity.ok(contactMessageService.getUnreadCount());
+    }
+
     @Operation(summary = "Get a contact message by ID (admin only)")
     @GetMapping("/{id}")
     public ResponseEntity<ContactMessageDto> getById(@PathVariable UUID id) {
@@ -0,0 +1,68 @@
+package disscount.contactMessage.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Full-text search schema for contact messages: a stored generated tsvector column over
+ * subject, sender name, email and message, with a GIN index on it.
+ * <p>
+ * Postgres ships no Croatian configuration, so {@link #CONFIG} copies 'simple' (no
+ * stemming, no stop words) and folds diacritics with unaccent. "Čačić", "cacic" and
+ * "ćačić" then all match. A text search configuration has no IF NOT EXISTS, so this runs
+ * from Java with existence checks instead of from db/schema.sql: once all beans are
+ * initialized (after ddl-auto created the table) and before the web server starts, so no
+ * search request arrives ahead of the column.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ContactMessageSearchIndex implements SmartInitializingSingleton {
+
+    static final String CONFIG = "disscount_hr";
+
+    private static final String CONFIG_EXISTS_SQL = "SELECT COUNT(*) FROM pg_ts_config WHERE cfgname = '" + CONFIG + "'";
+
+    // Email is indexed whole and split at '@' and '.', so "ivan" finds ivan@example.com
+    private static final String ADD_COLUMN_SQL = """
+            ALTER TABLE contact_message ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+                setweight(to_tsvector('%1$s', coalesce(subject, '')), 'A') ||
+                setweight(to_tsvector('%1$s', coalesce(full_name, '') || ' ' || coalesce(email, '') || ' '
+                                              || translate(coalesce(email, ''), '@.', '  ')), 'B') ||
+                setweight(to_tsvector('%1$s', coalesce(message, '')), 'C')
+            ) STORED
+            """.formatted(CONFIG);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS unaccent");
+
+            if (count(CONFIG_EXISTS_SQL) == 0) {
+                jdbcTemplate.execute("CREATE TEXT SEARCH CONFIGURATION " + CONFIG + " (COPY = simple)");
+                jdbcTemplate.execute("ALTER TEXT SEARCH CONFIGURATION " + CONFIG
+                        + " ALTER MAPPING FOR asciiword, asciihword, hword_asciipart, word, hword, hword_part"
+                        + " WITH unaccent, simple");
+                log.info("Created text search configuration {}", CONFIG);
+            }
+
+            // Rewrites the table once; later starts find the column and skip this
+            jdbcTemplate.execute(ADD_COLUMN_SQL);
+
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_contact_message_search"
+                    + " ON contact_message USING GIN (search_vector)");
+        });
+    }
+
+    private int count(String sql) {
+        Integer count = jdbcTemplate.queryForObject(sql, Integer.class);
+        return count != null ? count : 0;
+    }
+}
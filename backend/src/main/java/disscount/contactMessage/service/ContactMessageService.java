@@ -1,25 +1,39 @@
 package disscount.contactMessage.service;
 
+import disscount.common.dto.CursorPageDto;
 import disscount.contactMessage.dao.ContactMessageRepository;
 import disscount.contactMessage.domain.ContactMessage;
 import disscount.contactMessage.dto.ContactMessageDto;
 import disscount.contactMessage.dto.ContactMessageRequest;
+import disscount.contactMessage.dto.ContactUnreadCountDto;
 import disscount.exceptions.BadRequestException;
 import disscount.user.dao.UserRepository;
 import disscount.user.domain.User;
 import disscount.user.service.UserService;
+import disscount.util.CursorUtils;
 import disscount.util.SecurityUtils;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.sql.Timestamp;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
 import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -29,9 +43,56 @@ public class ContactMessageService {
     private final ContactMessageRepository contactMessageRepository;
     private final UserRepository userRepository;
     private final UserService userService;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
 
-    // Bounds the admin list query; a full paginated UI is a possible follow-up.
+    // Bounds the legacy admin list query; the inbox below pages through everything.
     private static final int MAX_ADMIN_MESSAGES = 500;
+    private static final int MAX_PAGE_SIZE = 100;
+    // The badge only needs to know "a lot"; counting stops here so a spam wave stays cheap
+    private static final int MAX_UNREAD_COUNT = 999;
+    private static final int MAX_SEARCH_TERMS = 10;
+    // Shorter prefixes match most of the index; such terms have to match a whole word
+    private static final int MIN_PREFIX_LENGTH = 3;
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final String COLUMNS = """
+            id, user_id, email, full_name, subject, message, source_path,
+            read_at, created_at, updated_at, deleted_at
+            """;
+
+    private static final String INBOX_COLUMNS = "SELECT " + COLUMNS + " FROM contact_message\n";
+
+    // Served by the GIN index on search_vector (ContactMessageSearchIndex)
+    private static final String SEARCH_SQL = """
+            SELECT %s
+            FROM contact_message, to_tsquery('%s', :query) query
+            WHERE search_vector @@ query AND %s
+            ORDER BY ts_rank_cd(search_vector, query) DESC, created_at DESC, id DESC
+            LIMIT :limit OFFSET :offset
+            """;
+
+    // Served by idx_contact_message_created_unread (db/schema.sql)
+    private static final String UNREAD_COUNT_SQL = """
+            SELECT COUNT(*) FROM (
+                SELECT 1 FROM contact_message
+                WHERE read_at IS NULL AND deleted_at IS NULL
+                LIMIT :limit
+            ) unread
+            """;
+
+    private static final RowMapper<ContactMessageDto> INBOX_ROW_MAPPER = (rs, rowNum) -> ContactMessageDto.builder()
+            .id(rs.getObject("id", UUID.class))
+            .userId(rs.getObject("user_id", UUID.class))
+            .email(rs.getString("email"))
+            .fullName(rs.getString("full_name"))
+            .subject(rs.getString("subject"))
+            .message(rs.getString("message"))
+            .sourcePath(rs.getString("source_path"))
+            .readAt(toLocalDateTime(rs.getTimestamp("read_at")))
+            .createdAt(toLocalDateTime(rs.getTimestamp("created_at")))
+            .updatedAt(toLocalDateTime(rs.getTimestamp("updated_at")))
+            .deletedAt(toLocalDateTime(rs.getTimestamp("deleted_at")))
+            .build();
 
     /** Public: create a message. Silently drops honeypot-filled bot submissions. */
     public ContactMessageDto create(ContactMessageRequest request) {
@@ -64,6 +125,91 @@ public class ContactMessageService {
         return messages.stream().map(this::convertToDto).toList();
     }
 
+    /**
+     * Keyset page of the admin inbox, newest first, over live messages or (deleted = true)
+     * the deleted ones. read narrows to read or unread messages; from/to bound the creation
+     * day, both inclusive. Filters are added to the SQL only when set, so the planner can
+     * use the partial indexes in db/schema.sql for the common live and unread views.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDto<ContactMessageDto> getInbox(Boolean read, boolean deleted, LocalDate from, LocalDate to,
+                                                     String cursor, int limit) {
+        requireAdmin();
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        CursorUtils.Cursor after = CursorUtils.decode(cursor);
+
+        StringBuilder sql = new StringBuilder(INBOX_COLUMNS)
+                .append(deleted ? "WHERE deleted_at IS NOT NULL" : "WHERE deleted_at IS NULL");
+        MapSqlParameterSource params = new MapSqlParameterSource("limit", size + 1);
+
+        if (read != null) {
+            sql.append(read ? " AND read_at IS NOT NULL" : " AND read_at IS NULL");
+        }
+        if (from != null) {
+            sql.append(" AND created_at >= :from");
+            params.addValue("from", from.atStartOfDay());
+        }
+        if (to != null) {
+            sql.append(" AND created_at < :to");
+            params.addValue("to", to.plusDays(1).atStartOfDay());
+        }
+        if (after != null) {
+            sql.append(" AND (created_at, id) < (:createdAt, :id)");
+            params.addValue("createdAt", after.createdAt()).addValue("id", after.id());
+        }
+        sql.append(" ORDER BY created_at DESC, id DESC LIMIT :limit");
+
+        List<ContactMessageDto> rows = namedJdbcTemplate.query(sql.toString(), params, INBOX_ROW_MAPPER);
+
+        boolean hasMore = rows.size() > size;
+        List<ContactMessageDto> page = hasMore ? rows.subList(0, size) : rows;
+        ContactMessageDto last = page.isEmpty() ? null : page.get(page.size() - 1);
+
+        return CursorPageDto.<ContactMessageDto>builder()
+                .items(page)
+                .nextCursor(hasMore ? CursorUtils.encode(last.getCreatedAt(), last.getId()) : null)
+                .build();
+    }
+
+    /**
+     * Full-text search over subject, sender name, email and message, best match first.
+     * Every word of the query must match, as a prefix and ignoring diacritics, so partial
+     * names and emails work; words under three characters must match whole. Pages are
+     * fetched with one extra row to detect the end without counting all matches.
+     */
+    @Transactional(readOnly = true)
+    public Slice<ContactMessageDto> search(String query, boolean deleted, int page, int size) {
+        requireAdmin();
+        Pageable pageable = PageRequest.of(Math.max(page, 0), Math.max(1, Math.min(size, MAX_PAGE_SIZE)));
+        String tsQuery = toPrefixQuery(query);
+        if (tsQuery.isEmpty()) {
+            return new SliceImpl<>(List.of(), pageable, false);
+        }
+
+        String sql = SEARCH_SQL.formatted(COLUMNS, ContactMessageSearchIndex.CONFIG,
+                deleted ? "deleted_at IS NOT NULL" : "deleted_at IS NULL");
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("query", tsQuery)
+                .addValue("limit", pageable.getPageSize() + 1)
+                .addValue("offset", pageable.getOffset());
+
+        List<ContactMessageDto> rows = namedJdbcTemplate.query(sql, params, INBOX_ROW_MAPPER);
+        boolean hasMore = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasMore ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasMore);
+    }
+
+    @Transactional(readOnly = true)
+    public ContactUnreadCountDto getUnreadCount() {
+        requireAdmin();
+        Integer count = namedJdbcTemplate.queryForObject(UNREAD_COUNT_SQL,
+                new MapSqlParameterSource("limit", MAX_UNREAD_COUNT + 1), Integer.class);
+        int unread = count != null ? count : 0;
+        return ContactUnreadCountDto.builder()
+                .unreadCount(Math.min(unread, MAX_UNREAD_COUNT))
+                .capped(unread > MAX_UNREAD_COUNT)
+                .build();
+    }
+
     public ContactMessageDto getById(UUID id) {
         requireAdmin();
         return convertToDto(loadOrThrow(id));
@@ -116,4 +262,21 @@ public class ContactMessageService {
                 .deletedAt(message.getDeletedAt())
                 .build();
     }
+
+    // "Ivan Hor" -> "ivan:* & hor:*"; anything but letters and digits separates words,
+    // so user input can never produce tsquery syntax
+    private static String toPrefixQuery(String query) {
+        if (query == null) {
+            return "";
+        }
+        return Arrays.stream(NON_WORD.split(query.toLowerCase(Locale.ROOT)))
+                .filter(term -> !term.isEmpty())
+                .limit(MAX_SEARCH_TERMS)
+                .map(term -> term.length() >= MIN_PREFIX_LENGTH ? term + ":*" : term)
+                .collect(Collectors.joining(" & "));
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
 }
@@ -0,0 +1,33 @@
+package disscount.dealFeed.dao;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import disscount.dealFeed.domain.DealFeedItem;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface DealFeedItemRepository extends JpaRepository<DealFeedItem, UUID> {
+
+    @Query("SELECT MAX(d.priceDate) FROM DealFeedItem d")
+    Optional<LocalDate> findLatestPriceDate();
+
+    // Keyset page served by the (user_id, rank) unique index
+    @Query(value = """
+            SELECT * FROM deal_feed_item d
+            WHERE d.user_id = :userId AND d.rank > :afterRank
+            ORDER BY d.rank
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<DealFeedItem> findPageByUserId(
+        @Param("userId") UUID userId,
+        @Param("afterRank") int afterRank,
+        @Param("limit") int limit
+    );
+}
@@ -0,0 +1,67 @@
+package disscount.dealFeed.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import disscount.user.domain.User;
+
+/**
+ * One ranked deal in a user's precomputed feed: a discounted EAN at one of the user's
+ * pinned chains and places on priceDate. Rows for several stores of the same chain are
+ * collapsed into one, priced at the cheapest of them. The whole table is rebuilt after
+ * each ingest, so it only ever holds the newest day.
+ */
+@Entity
+@Table(name = "deal_feed_item",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "rank"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DealFeedItem {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(name = "price_date", nullable = false)
+    private LocalDate priceDate;
+
+    // 1 is the best deal; dense per user
+    @Column(name = "rank", nullable = false)
+    private Integer rank;
+
+    @Column(name = "ean", nullable = false)
+    private String ean;
+
+    @Column(name = "product_name")
+    private String productName;
+
+    @Column(name = "chain_code", nullable = false)
+    private String chainCode;
+
+    // How many of the user's stores of this chain carry the deal
+    @Column(name = "store_count", nullable = false)
+    private Integer storeCount;
+
+    @Column(name = "price", nullable = false, precision = 10, scale = 2)
+    private BigDecimal price;
+
+    @Column(name = "regular_price", nullable = false, precision = 10, scale = 2)
+    private BigDecimal regularPrice;
+
+    @Column(name = "discount_amount", nullable = false, precision = 10, scale = 2)
+    private BigDecimal discountAmount;
+
+    @Column(name = "discount_percentage", nullable = false, precision = 5, scale = 2)
+    private BigDecimal discountPercentage;
+}
@@ -0,0 +1,23 @@
+package disscount.dealFeed.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@Builder
+public class DealFeedItemDto {
+
+    private int rank;
+    private LocalDate priceDate;
+    private String ean;
+    private String productName;
+    private String chainCode;
+    private int storeCount;
+    private BigDecimal price;
+    private BigDecimal regularPrice;
+    private BigDecimal discountAmount;
+    private BigDecimal discountPercentage;
+}
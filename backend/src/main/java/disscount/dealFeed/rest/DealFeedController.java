@@ -0,0 +1,32 @@
+package disscount.dealFeed.rest;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import disscount.common.dto.CursorPageDto;
+import disscount.dealFeed.dto.DealFeedItemDto;
+import disscount.dealFeed.service.DealFeedService;
+import disscount.util.SecurityUtils;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/deals")
+@RequiredArgsConstructor
+@Tag(name = "Deals", description = "Deals in the user's pinned stores and places")
+public class DealFeedController {
+
+    private final DealFeedService dealFeedService;
+
+    @Operation(summary = "Get current user's deal feed, best deal first, by cursor")
+    @GetMapping("/me")
+    public ResponseEntity<CursorPageDto<DealFeedItemDto>> getCurrentUserDeals(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        UUID userId = SecurityUtils.getCurrentUserId();
+        return ResponseEntity.ok(dealFeedService.getUserFeed(userId, cursor, limit));
+    }
+}
@@ -0,0 +1,171 @@
+package disscount.dealFeed.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import disscount.common.dto.CursorPageDto;
+import disscount.dealFeed.dao.DealFeedItemRepository;
+import disscount.dealFeed.domain.DealFeedItem;
+import disscount.dealFeed.dto.DealFeedItemDto;
+import disscount.exceptions.BadRequestException;
+import disscount.price.dao.StorePriceRepository;
+import disscount.price.service.PriceIngestedEvent;
+import disscount.util.CursorUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Per-user "deals in my pinned stores" feed. After each ingest of the newest day the
+ * day's discounted prices (price below the regular price) are joined with every user's
+ * pinned chains and places in one statement, ranked by relative then absolute saving and
+ * written to deal_feed_item. Opening the feed is then a keyset read of precomputed rows.
+ * <p>
+ * Pinned chains and places narrow each other: a user with both sees deals of those chains
+ * in those places; a user with only one kind sees everything matching it. Users who pinned
+ * nothing get no feed.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DealFeedService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private static final String DELETE_SQL = "DELETE FROM deal_feed_item";
+
+    // A (EAN, chain) pair is priced at its cheapest matching store, with that store's regular price.
+    // Cities compare case- and accent-insensitively, chains case-insensitively.
+    private static final String INSERT_SQL = """
+            WITH deal AS (
+                SELECT sp.ean, sp.chain_code, lower(unaccent(trim(s.city))) AS city,
+                       MIN(sp.price) AS price,
+                       (ARRAY_AGG(sp.regular_price ORDER BY sp.price, sp.regular_price DESC))[1] AS regular_price,
+                       COUNT(*) AS store_count
+                FROM store_price sp
+                JOIN store s ON s.chain_code = sp.chain_code AND s.code = sp.store_code
+                WHERE sp.price_date = ? AND sp.price > 0 AND sp.regular_price > sp.price
+                GROUP BY sp.ean, sp.chain_code, lower(unaccent(trim(s.city)))
+            ), user_deal AS (
+                SELECT ps.user_id, d.*
+                FROM pinned_store ps
+                JOIN deal d ON LOWER(d.chain_code) = LOWER(ps.store_api_id)
+                WHERE NOT EXISTS (SELECT 1 FROM pinned_place pp WHERE pp.user_id = ps.user_id)
+                   OR EXISTS (SELECT 1 FROM pinned_place pp
+                              WHERE pp.user_id = ps.user_id AND lower(unaccent(trim(pp.place_api_id))) = d.city)
+                UNION ALL
+                SELECT pp.user_id, d.*
+                FROM pinned_place pp
+                JOIN deal d ON d.city = lower(unaccent(trim(pp.place_api_id)))
+                WHERE NOT EXISTS (SELECT 1 FROM pinned_store ps WHERE ps.user_id = pp.user_id)
+            ), user_best AS (
+                SELECT user_id, ean, chain_code,
+                       MIN(price) AS price,
+                       (ARRAY_AGG(regular_price ORDER BY price, regular_price DESC))[1] AS regular_price,
+                       SUM(store_count) AS store_count
+                FROM user_deal
+                GROUP BY user_id, ean, chain_code
+            ), ranked AS (
+                SELECT ub.*,
+                       ROW_NUMBER() OVER (PARTITION BY user_id
+                                          ORDER BY (regular_price - price) / regular_price DESC,
+                                                   regular_price - price DESC, ean, chain_code) AS rank
+                FROM user_best ub
+            )
+            INSERT INTO deal_feed_item (id, user_id, price_date, rank, ean, product_name, chain_code, store_count,
+                                        price, regular_price, discount_amount, discount_percentage)
+            SELECT gen_random_uuid(), r.user_id, ?, r.rank, r.ean, p.name, r.chain_code, r.store_count,
+                   r.price, r.regular_price, r.regular_price - r.price,
+                   ROUND((r.regular_price - r.price) * 100 / r.regular_price, 2)
+            FROM ranked r
+            LEFT JOIN product p ON p.ean = r.ean
+            WHERE r.rank <= ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final DealFeedItemRepository dealFeedItemRepository;
+    private final StorePriceRepository storePriceRepository;
+
+    @Value("${deal-feed.max-items-per-user:200}")
+    private int maxItemsPerUser;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        LocalDate latestPrices = storePriceRepository.findLatestPriceDate().orElse(null);
+        LocalDate latestFeed = dealFeedItemRepository.findLatestPriceDate().orElse(null);
+
+        if (latestPrices != null && (latestFeed == null || latestFeed.isBefore(latestPrices))) {
+            rebuild(latestPrices);
+        }
+    }
+
+    @EventListener
+    public void onPriceIngested(PriceIngestedEvent event) {
+        // Re-ingesting a past day must not replace the feed with older deals
+        LocalDate latestPrices = storePriceRepository.findLatestPriceDate().orElse(null);
+        if (event.priceDate().equals(latestPrices)) {
+            rebuild(event.priceDate());
+        }
+    }
+
+    /**
+     * Replaces every user's feed with the deals of priceDate. Readers keep seeing the
+     * previous feed until the rebuild commits.
+     */
+    public int rebuild(LocalDate priceDate) {
+        Integer inserted = transactionTemplate.execute(status -> {
+            jdbcTemplate.update(DELETE_SQL);
+            return jdbcTemplate.update(INSERT_SQL, priceDate, priceDate, maxItemsPerUser);
+        });
+        log.info("Deal feed for {} rebuilt: {} items", priceDate, inserted);
+        return inserted != null ? inserted : 0;
+    }
+
+    /**
+     * Keyset page of the user's feed, best deal first. A cursor from before the latest
+     * rebuild is rejected rather than silently continuing in a different ranking.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDto<DealFeedItemDto> getUserFeed(UUID userId, String cursor, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        CursorUtils.RankCursor after = CursorUtils.decodeRank(cursor);
+
+        List<DealFeedItem> rows = dealFeedItemRepository.findPageByUserId(userId, after != null ? after.rank() : 0, size + 1);
+        if (after != null && !rows.isEmpty() && !rows.get(0).getPriceDate().equals(after.priceDate())) {
+            throw new BadRequestException("Deal feed has been refreshed, reload from the first page");
+        }
+
+        boolean hasMore = rows.size() > size;
+        List<DealFeedItem> page = hasMore ? rows.subList(0, size) : rows;
+        DealFeedItem last = page.isEmpty() ? null : page.get(page.size() - 1);
+
+        return CursorPageDto.<DealFeedItemDto>builder()
+                .items(page.stream().map(this::mapToDto).toList())
+                .nextCursor(hasMore ? CursorUtils.encodeRank(last.getPriceDate(), last.getRank()) : null)
+                .build();
+    }
+
+    private DealFeedItemDto mapToDto(DealFeedItem item) {
+        return DealFeedItemDto.builder()
+                .rank(item.getRank())
+                .priceDate(item.getPriceDate())
+                .ean(item.getEan())
+                .productName(item.getProductName())
+                .chainCode(item.getChainCode())
+                .storeCount(item.getStoreCount())
+                .price(item.getPrice())
+                .regularPrice(item.getRegularPrice())
+                .discountAmount(item.getDiscountAmount())
+                .discountPercentage(item.getDiscountPercentage())
+                .build();
+    }
+}
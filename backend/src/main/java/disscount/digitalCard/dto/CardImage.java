@@ -0,0 +1,10 @@
+package disscount.digitalCard.dto;
+
+import org.springframework.http.MediaType;
+
+/**
+ * A rendered card code. hash addresses the content (codeType, value) independent of the
+ * card, so it doubles as ETag and as the cache-busting version in image URLs.
+ */
+public record CardImage(byte[] bytes, MediaType mediaType, String hash) {
+}
@@ -22,4 +22,6 @@ public class DigitalCardDto {
     private String color;
     private String note;
     private LocalDateTime createdAt;
+    // Versioned by content, so the image can be cached as immutable; null for number/text cards
+    private String imageUrl;
 }
@@ -4,17 +4,24 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import disscount.digitalCard.dto.CardImage;
 import disscount.digitalCard.dto.DigitalCardDto;
 import disscount.digitalCard.dto.DigitalCardRequest;
+import disscount.digitalCard.service.CardImageRenderer;
 import disscount.digitalCard.service.DigitalCardService;
+import disscount.util.ETagUtils;
 import disscount.util.SecurityUtils;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/digital-cards")
@@ -49,6 +56,37 @@ public class DigitalCardController {
             .orElse(ResponseEntity.notFound().build());
     }
 
+    @Operation(summary = "Render the card's barcode or QR code as PNG or SVG")
+    @GetMapping("/{id}/image")
+    public ResponseEntity<byte[]> getCardImage(
+            @PathVariable UUID id,
+            @RequestParam(defaultValue = "PNG") CardImageRenderer.Format format,
+            @RequestParam(required = false) String v,
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        UUID userId = SecurityUtils.getCurrentUserId();
+        Optional<CardImage> image = digitalCardService.getCardImage(id, userId, format);
+        if (image.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        CardImage card = image.get();
+        // PNG and SVG of the same card are different representations, so the format is part of the tag
+        String etag = "\"" + card.hash() + "-" + format + "\"";
+        // A URL carrying the current content hash can never change; anything else must revalidate
+        CacheControl cacheControl = card.hash().equals(v)
+                ? CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate().immutable()
+                : CacheControl.noCache().cachePrivate();
+
+        if (ETagUtils.matchesAny(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .contentType(card.mediaType())
+                .body(card.bytes());
+    }
+
     @Operation(summary = "Update digital card")
     @PutMapping("/{id}")
     public ResponseEntity<DigitalCardDto> updateCard(
@@ -0,0 +1,204 @@
+package disscount.digitalCard.service;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.MultiFormatWriter;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import disscount.digitalCard.dto.CardImage;
+import disscount.exceptions.BadRequestException;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Renders card codes as PNG or SVG. "barcode" values become EAN-13/EAN-8 when they are
+ * valid retail numbers and Code 128 otherwise; "qr" values become QR codes. Other code
+ * types ("number", "text") are shown as text by the app and cannot be rendered.
+ * <p>
+ * Output is cached by content: the key is (codeType, value, format), not the card, so
+ * identical cards share one entry. The cache is an LRU bounded by total bytes.
+ */
+@Component
+public class CardImageRenderer {
+
+    public enum Format {
+        PNG,
+        SVG
+    }
+
+    private static final int QR_MODULE_PX = 8;
+    private static final int BAR_MODULE_PX = 3;
+    private static final int BAR_HEIGHT_PX = 120;
+    private static final int BAR_SVG_HEIGHT = 40;
+
+    private final ByteBoundedCache cache;
+
+    public CardImageRenderer(@Value("${digital-card.image-cache-bytes}") long maxCacheBytes) {
+        this.cache = new ByteBoundedCache(maxCacheBytes);
+    }
+
+    public static boolean isRenderable(String codeType) {
+        return codeType != null && switch (codeType.toLowerCase(Locale.ROOT)) {
+            case "barcode", "qr" -> true;
+            default -> false;
+        };
+    }
+
+    public static String contentHash(String codeType, String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest((codeType.toLowerCase(Locale.ROOT) + '\0' + value).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public CardImage render(String codeType, String value, Format format) {
+        if (!isRenderable(codeType)) {
+            throw new BadRequestException("Code type '" + codeType + "' cannot be rendered as an image");
+        }
+
+        String hash = contentHash(codeType, value);
+        String key = hash + '.' + format;
+        MediaType mediaType = format == Format.SVG ? MediaType.valueOf("image/svg+xml") : MediaType.IMAGE_PNG;
+
+        byte[] bytes = cache.get(key);
+        if (bytes == null) {
+            BitMatrix matrix = encode(codeType.toLowerCase(Locale.ROOT), value);
+            boolean isQr = "qr".equalsIgnoreCase(codeType);
+            bytes = format == Format.SVG ? toSvg(matrix, isQr) : toPng(matrix, isQr);
+            cache.put(key, bytes);
+        }
+        return new CardImage(bytes, mediaType, hash);
+    }
+
+    private static BitMatrix encode(String codeType, String value) {
+        try {
+            if ("qr".equals(codeType)) {
+                Map<EncodeHintType, Object> hints = Map.of(
+                        EncodeHintType.ERROR_CORRECTION, ErrorCorrectionLevel.M,
+                        EncodeHintType.CHARACTER_SET, StandardCharsets.UTF_8.name(),
+                        EncodeHintType.MARGIN, 4);
+                // Zero size yields one pixel per module, scaled at output
+                return new MultiFormatWriter().encode(value, BarcodeFormat.QR_CODE, 0, 0, hints);
+            }
+
+            Map<EncodeHintType, Object> hints = Map.of(EncodeHintType.MARGIN, 10);
+            return new MultiFormatWriter().encode(value, barcodeFormat(value), 0, 1, hints);
+        } catch (WriterException | IllegalArgumentException e) {
+            throw new BadRequestException("Card value cannot be encoded as " + codeType + ": " + e.getMessage());
+        }
+    }
+
+    private static BarcodeFormat barcodeFormat(String value) {
+        if (value.matches("\\d{13}") && hasValidCheckDigit(value)) {
+            return BarcodeFormat.EAN_13;
+        }
+        if (value.matches("\\d{8}") && hasValidCheckDigit(value)) {
+            return BarcodeFormat.EAN_8;
+        }
+        return BarcodeFormat.CODE_128;
+    }
+
+    // GS1 mod-10: weights 3,1,3,... from the digit left of the check digit
+    private static boolean hasValidCheckDigit(String digits) {
+        int sum = 0;
+        for (int i = digits.length() - 2, weight = 3; i >= 0; i--, weight = 4 - weight) {
+            sum += (digits.charAt(i) - '0') * weight;
+        }
+        return (10 - sum % 10) % 10 == digits.charAt(digits.length() - 1) - '0';
+    }
+
+    private static byte[] toPng(BitMatrix matrix, boolean isQr) {
+        int scale = isQr ? QR_MODULE_PX : BAR_MODULE_PX;
+        int width = matrix.getWidth() * scale;
+        int height = isQr ? matrix.getHeight() * scale : BAR_HEIGHT_PX;
+
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_BINARY);
+        for (int y = 0; y < height; y++) {
+            int row = isQr ? y / scale : 0;
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, matrix.get(x / scale, row) ? 0xFF000000 : 0xFFFFFFFF);
+            }
+        }
+
+        try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            ImageIO.write(image, "png", out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // One rect per horizontal run of dark modules; viewBox in modules so it scales losslessly
+    private static byte[] toSvg(BitMatrix matrix, boolean isQr) {
+        int width = matrix.getWidth();
+        int rows = isQr ? matrix.getHeight() : 1;
+        int moduleHeight = isQr ? 1 : BAR_SVG_HEIGHT;
+
+        StringBuilder svg = new StringBuilder()
+                .append("<svg xmlns=\"http://www.w3.org/2000/svg\" viewBox=\"0 0 ")
+                .append(width).append(' ').append(rows * moduleHeight)
+                .append("\" shape-rendering=\"crispEdges\"><rect width=\"100%\" height=\"100%\" fill=\"#fff\"/><path fill=\"#000\" d=\"");
+        for (int y = 0; y < rows; y++) {
+            for (int x = 0; x < width; ) {
+                if (!matrix.get(x, y)) {
+                    x++;
+                    continue;
+                }
+                int start = x;
+                while (x < width && matrix.get(x, y)) {
+                    x++;
+                }
+                svg.append('M').append(start).append(' ').append(y * moduleHeight)
+                   .append('h').append(x - start).append('v').append(moduleHeight)
+                   .append('h').append(start - x).append('z');
+            }
+        }
+        svg.append("\"/></svg>");
+        return svg.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static final class ByteBoundedCache {
+
+        private final long maxBytes;
+        private final LinkedHashMap<String, byte[]> entries = new LinkedHashMap<>(64, 0.75f, true);
+        private long totalBytes;
+
+        private ByteBoundedCache(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        synchronized byte[] get(String key) {
+            return entries.get(key);
+        }
+
+        synchronized void put(String key, byte[] value) {
+            byte[] previous = entries.put(key, value);
+            totalBytes += value.length - (previous != null ? previous.length : 0);
+
+            var eldest = entries.entrySet().iterator();
+            while (totalBytes > maxBytes && eldest.hasNext()) {
+                totalBytes -= eldest.next().getValue().length;
+                eldest.remove();
+            }
+        }
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import disscount.digitalCard.dao.DigitalCardRepository;
 import disscount.digitalCard.domain.DigitalCard;
+import disscount.digitalCard.dto.CardImage;
 import disscount.digitalCard.dto.DigitalCardDto;
 import disscount.digitalCard.dto.DigitalCardRequest;
 import disscount.exceptions.BadRequestException;
@@ -25,6 +26,7 @@ public class DigitalCardService {
 
     private final DigitalCardRepository digitalCardRepository;
     private final UserRepository userRepository;
+    private final CardImageRenderer cardImageRenderer;
 
     public DigitalCardDto createCard(UUID userId, DigitalCardRequest request) {
         User user = userRepository.findById(userId)
@@ -62,6 +64,15 @@ public class DigitalCardService {
                 .map(this::convertToDto);
     }
 
+    @Transactional(readOnly = true)
+    public Optional<CardImage> getCardImage(UUID cardId, UUID userId, CardImageRenderer.Format format) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new UnauthorizedException("User not found"));
+
+        return digitalCardRepository.findActiveByIdAndUser(cardId, user)
+                .map(card -> cardImageRenderer.render(card.getCodeType(), card.getValue(), format));
+    }
+
     public DigitalCardDto updateCard(UUID cardId, UUID userId, DigitalCardRequest request) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new UnauthorizedException("User not found"));
@@ -102,6 +113,10 @@ public class DigitalCardService {
                 .color(card.getColor())
                 .note(card.getNote())
                 .createdAt(card.getCreatedAt())
+                .imageUrl(CardImageRenderer.isRenderable(card.getCodeType())
+                        ? "/api/digital-cards/" + card.getId() + "/image?v="
+                          + CardImageRenderer.contentHash(card.getCodeType(), card.getValue())
+                        : null)
                 .build();
     }
 }
@@ -0,0 +1,89 @@
+package disscount.notification.dao;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import disscount.notification.domain.NotificationCounter;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface NotificationCounterRepository extends JpaRepository<NotificationCounter, UUID> {
+
+    @Query("SELECT c.unreadCount FROM NotificationCounter c WHERE c.userId = :userId")
+    Optional<Integer> findUnreadCountByUserId(@Param("userId") UUID userId);
+
+    @Query("SELECT c.readUpTo FROM NotificationCounter c WHERE c.userId = :userId")
+    Optional<LocalDateTime> findReadUpToByUserId(@Param("userId") UUID userId);
+
+    // Single-statement upserts, so concurrent writers never lose an increment
+    @Modifying
+    @Query(value = """
+            INSERT INTO notification_counter (user_id, unread_count) VALUES (:userId, GREATEST(:delta, 0))
+            ON CONFLICT (user_id) DO UPDATE
+            SET unread_count = GREATEST(notification_counter.unread_count + :delta, 0)
+            """, nativeQuery = true)
+    int addUnread(@Param("userId") UUID userId, @Param("delta") int delta);
+
+    // A notification created at or before a concurrently advanced watermark is already read
+    @Modifying
+    @Query(value = """
+            INSERT INTO notification_counter (user_id, unread_count) VALUES (:userId, 1)
+            ON CONFLICT (user_id) DO UPDATE
+            SET unread_count = notification_counter.unread_count + 1
+            WHERE notification_counter.read_up_to IS NULL OR notification_counter.read_up_to < :createdAt
+            """, nativeQuery = true)
+    int addCreated(@Param("userId") UUID userId, @Param("createdAt") LocalDateTime createdAt);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO notification_counter (user_id, unread_count, read_up_to) VALUES (:userId, 0, :readUpTo)
+            ON CONFLICT (user_id) DO UPDATE
+            SET unread_count = 0, read_up_to = GREATEST(notification_counter.read_up_to, :readUpTo)
+            """, nativeQuery = true)
+    int markAllAsRead(@Param("userId") UUID userId, @Param("readUpTo") LocalDateTime readUpTo);
+
+    // One-off seed from existing rows; a no-op once any counter exists
+    @Modifying
+    @Query(value = """
+            INSERT INTO notification_counter (user_id, unread_count)
+            SELECT n.user_id, COUNT(*) FROM notification n
+            WHERE n.is_read = false AND n.deleted_at IS NULL
+              AND NOT EXISTS (SELECT 1 FROM notification_counter)
+            GROUP BY n.user_id
+            ON CONFLICT (user_id) DO NOTHING
+            """, nativeQuery = true)
+    int seedFromNotifications();
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO notification_counter (user_id, unread_count, emailed_up_to) VALUES (:userId, 0, :emailedUpTo)
+            ON CONFLICT (user_id) DO UPDATE
+            SET emailed_up_to = GREATEST(notification_counter.emailed_up_to, :emailedUpTo)
+            """, nativeQuery = true)
+    int advanceEmailedUpTo(@Param("userId") UUID userId, @Param("emailedUpTo") LocalDateTime emailedUpTo);
+
+    // One-off move of existing is_read data onto watermarks: each user's watermark becomes
+    // their newest notification older than their oldest unread one. Rows above it keep
+    // their flags, so no read state changes. A no-op once any watermark exists.
+    @Modifying
+    @Query(value = """
+            INSERT INTO notification_counter (user_id, unread_count, read_up_to)
+            SELECT n.user_id, 0, MAX(n.created_at) FROM notification n
+            WHERE n.created_at < COALESCE(
+                (SELECT MIN(u.created_at) FROM notification u
+                 WHERE u.user_id = n.user_id AND u.is_read = false AND u.deleted_at IS NULL),
+                'infinity')
+              AND NOT EXISTS (SELECT 1 FROM notification_counter WHERE read_up_to IS NOT NULL)
+            GROUP BY n.user_id
+            ON CONFLICT (user_id) DO UPDATE
+            SET read_up_to = EXCLUDED.read_up_to
+            WHERE notification_counter.read_up_to IS NULL
+            """, nativeQuery = true)
+    int seedReadWatermarks();
+}
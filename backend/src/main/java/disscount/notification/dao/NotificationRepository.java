@@ -10,6 +10,8 @@ import org.springframework.stereotype.Repository;
 
 import disscount.notification.domain.Notification;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -19,10 +21,70 @@ public interface NotificationRepository extends JpaRepository<Notification, UUID
     @Query("SELECT n FROM Notification n WHERE n.user.id = :userId AND n.deletedAt IS NULL ORDER BY n.createdAt DESC")
     Page<Notification> findByUserId(@Param("userId") UUID userId, Pageable pageable);
 
+    // Keyset pages; both are served by idx_notification_user_created_active (db/schema.sql).
+    // The plain created_at bounds let the planner prune monthly partitions outside the range.
+    @Query(value = """
+            SELECT * FROM notification n
+            WHERE n.user_id = :userId AND n.deleted_at IS NULL
+            ORDER BY n.created_at DESC, n.id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Notification> findFirstPageByUserId(@Param("userId") UUID userId, @Param("limit") int limit);
+
+    @Query(value = """
+            SELECT * FROM notification n
+            WHERE n.user_id = :userId AND n.deleted_at IS NULL
+              AND n.created_at <= :createdAt
+              AND (n.created_at, n.id) < (:createdAt, :id)
+            ORDER BY n.created_at DESC, n.id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Notification> findPageAfterByUserId(
+        @Param("userId") UUID userId,
+        @Param("createdAt") LocalDateTime createdAt,
+        @Param("id") UUID id,
+        @Param("limit") int limit
+    );
+
+    // Oldest first, for replaying what a reconnecting stream client missed
+    @Query(value = """
+            SELECT * FROM notification n
+            WHERE n.user_id = :userId AND n.deleted_at IS NULL
+              AND n.created_at >= :createdAt
+              AND (n.created_at, n.id) > (:createdAt, :id)
+            ORDER BY n.created_at, n.id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Notification> findAfterByUserId(
+        @Param("userId") UUID userId,
+        @Param("createdAt") LocalDateTime createdAt,
+        @Param("id") UUID id,
+        @Param("limit") int limit
+    );
+
     @Query("SELECT n FROM Notification n WHERE n.id = :id AND n.deletedAt IS NULL")
     Optional<Notification> findById(@Param("id") UUID id);
 
+    // Unread means not flagged and newer than the user's read watermark
+    @Modifying
+    @Query(value = """
+            UPDATE notification n SET is_read = true
+            WHERE n.id = :id AND n.is_read = false AND n.deleted_at IS NULL
+              AND n.created_at > COALESCE(
+                  (SELECT c.read_up_to FROM notification_counter c WHERE c.user_id = n.user_id), '-infinity')
+            """, nativeQuery = true)
+    int markAsReadById(@Param("id") UUID id);
+
+    @Modifying
+    @Query(value = """
+            UPDATE notification n SET deleted_at = :deletedAt
+            WHERE n.id = :id AND n.is_read = false AND n.deleted_at IS NULL
+              AND n.created_at > COALESCE(
+                  (SELECT c.read_up_to FROM notification_counter c WHERE c.user_id = n.user_id), '-infinity')
+            """, nativeQuery = true)
+    int softDeleteUnreadById(@Param("id") UUID id, @Param("deletedAt") LocalDateTime deletedAt);
+
     @Modifying
-    @Query("UPDATE Notification n SET n.isRead = true WHERE n.user.id = :userId AND n.isRead = false AND n.deletedAt IS NULL")
-    int markAllAsReadByUserId(@Param("userId") UUID userId);
+    @Query("UPDATE Notification n SET n.deletedAt = :deletedAt WHERE n.id = :id AND n.deletedAt IS NULL")
+    int softDeleteById(@Param("id") UUID id, @Param("deletedAt") LocalDateTime deletedAt);
 }
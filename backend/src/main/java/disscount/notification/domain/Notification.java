@@ -3,12 +3,18 @@ package disscount.notification.domain;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 import disscount.user.domain.User;
 
+/**
+ * Stored in a table range-partitioned by month on created_at; see NotificationPartitionService.
+ */
 @Entity
 @Table(name = "notification")
 @Getter
@@ -40,6 +46,11 @@ public class Notification {
     @Column(name = "related_store_api_id")
     private String relatedStoreApiId;
 
+    // Per-product lines of a digest notification; null for plain notifications
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "entries", columnDefinition = "jsonb")
+    private List<NotificationEntry> entries;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -0,0 +1,41 @@
+package disscount.notification.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Per-user notification state, kept in step with notification rows by NotificationService
+ * inside the same transaction.
+ * <p>
+ * unreadCount is denormalized so the badge never needs COUNT(*). readUpTo is the read
+ * watermark: every notification created at or before it counts as read, whatever its
+ * is_read flag says, so "mark all as read" is a write to this one row. is_read only
+ * records per-row reads newer than the watermark. emailedUpTo marks how far the email
+ * digests have got.
+ */
+@Entity
+@Table(name = "notification_counter")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NotificationCounter {
+
+    @Id
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @Column(name = "unread_count", nullable = false)
+    @Builder.Default
+    private Integer unreadCount = 0;
+
+    @Column(name = "read_up_to")
+    private LocalDateTime readUpTo;
+
+    @Column(name = "emailed_up_to")
+    private LocalDateTime emailedUpTo;
+}
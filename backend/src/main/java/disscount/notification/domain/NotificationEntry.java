@@ -0,0 +1,29 @@
+package disscount.notification.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * One product line of a digest notification, stored as JSON on the notification row.
+ * The discount is measured against the average price across chains, as on the watchlist;
+ * lowestPrice30 is the cheapest price of the last 30 days, null without statistics.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationEntry {
+
+    private String productApiId;
+    private String productName;
+    private String chainCode;
+    private BigDecimal price;
+    private BigDecimal averagePrice;
+    private BigDecimal discountAmount;
+    private BigDecimal discountPercentage;
+    private BigDecimal lowestPrice30;
+}
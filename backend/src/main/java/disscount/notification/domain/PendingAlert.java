@@ -0,0 +1,50 @@
+package disscount.notification.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import disscount.user.domain.User;
+
+/**
+ * An alert waiting to be merged into the user's next digest notification. Rows are
+ * deleted in the same transaction that writes the digest, so an alert is either still
+ * here or part of a notification, never neither.
+ */
+@Entity
+@Table(name = "pending_alert",
+       indexes = @Index(name = "idx_pending_alert_created", columnList = "created_at"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PendingAlert {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(name = "product_api_id", nullable = false)
+    private String productApiId;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "entry", nullable = false, columnDefinition = "jsonb")
+    private NotificationEntry entry;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
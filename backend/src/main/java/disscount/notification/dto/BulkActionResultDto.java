@@ -0,0 +1,12 @@
+package disscount.notification.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class BulkActionResultDto {
+
+    // Rows actually changed; IDs of other users, already-read or deleted rows are not counted
+    private int affected;
+}
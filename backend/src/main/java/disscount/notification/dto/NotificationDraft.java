@@ -0,0 +1,17 @@
+package disscount.notification.dto;
+
+import disscount.notification.domain.NotificationEntry;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One notification to be written by the bulk pipeline; entries is null except for digests.
+ */
+public record NotificationDraft(UUID userId, String message, String relatedProductApiId, String relatedStoreApiId,
+                                List<NotificationEntry> entries) {
+
+    public NotificationDraft(UUID userId, String message, String relatedProductApiId, String relatedStoreApiId) {
+        this(userId, message, relatedProductApiId, relatedStoreApiId, null);
+    }
+}
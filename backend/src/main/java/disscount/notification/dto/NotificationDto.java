@@ -4,8 +4,11 @@ import lombok.Builder;
 import lombok.Data;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
+import disscount.notification.domain.NotificationEntry;
+
 @Data
 @Builder
 public class NotificationDto {
@@ -16,5 +19,6 @@ public class NotificationDto {
     private Boolean isRead;
     private String relatedProductApiId;
     private String relatedStoreApiId;
+    private List<NotificationEntry> entries;
     private LocalDateTime createdAt;
 }
@@ -0,0 +1,17 @@
+package disscount.notification.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+public class NotificationIdsRequest {
+
+    @NotEmpty(message = "At least one notification ID is required")
+    @Size(max = 500, message = "At most 500 notifications can be changed at once")
+    private List<@NotNull UUID> ids;
+}
@@ -0,0 +1,11 @@
+package disscount.notification.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class UnreadCountDto {
+
+    private int unreadCount;
+}
@@ -8,12 +8,19 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import disscount.common.dto.CursorPageDto;
+import disscount.notification.dto.BulkActionResultDto;
 import disscount.notification.dto.NotificationDto;
+import disscount.notification.dto.NotificationIdsRequest;
 import disscount.notification.dto.NotificationRequest;
+import disscount.notification.dto.UnreadCountDto;
 import disscount.notification.service.NotificationService;
+import disscount.notification.service.NotificationStreamService;
 import disscount.util.SecurityUtils;
 
 import java.util.UUID;
@@ -25,6 +32,7 @@ import java.util.UUID;
 public class NotificationController {
 
     private final NotificationService notificationService;
+    private final NotificationStreamService notificationStreamService;
 
     // temporary for testing (TODO: remove)
     @Operation(summary = "Create a new notification")
@@ -44,6 +52,33 @@ public class NotificationController {
         return ResponseEntity.ok(notifications);
     }
 
+    @Operation(summary = "Get current user's notifications, newest first, by cursor")
+    @GetMapping("/me/scroll")
+    public ResponseEntity<CursorPageDto<NotificationDto>> scrollCurrentUserNotifications(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        UUID userId = SecurityUtils.getCurrentUserId();
+        return ResponseEntity.ok(notificationService.getUserNotifications(userId, cursor, limit));
+    }
+
+    @Operation(summary = "Stream current user's new notifications as Server-Sent Events")
+    @GetMapping(value = "/me/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamCurrentUserNotifications(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        UUID userId = SecurityUtils.getCurrentUserId();
+        return notificationStreamService.subscribe(userId, lastEventId);
+    }
+
+    @Operation(summary = "Get current user's unread notification count")
+    @GetMapping("/me/unread-count")
+    public ResponseEntity<UnreadCountDto> getUnreadCount() {
+        UUID userId = SecurityUtils.getCurrentUserId();
+        UnreadCountDto count = UnreadCountDto.builder()
+                .unreadCount(notificationService.getUnreadCount(userId))
+                .build();
+        return ResponseEntity.ok(count);
+    }
+
     @Operation(summary = "Mark notification as read")
     @PatchMapping("/{id}/read")
     public ResponseEntity<Void> markAsRead(@PathVariable UUID id) {
@@ -59,6 +94,22 @@ public class NotificationController {
         return ResponseEntity.noContent().build();
     }
 
+    @Operation(summary = "Mark the given notifications of the current user as read")
+    @PatchMapping("/bulk/read")
+    public ResponseEntity<BulkActionResultDto> markAsRead(@Valid @RequestBody NotificationIdsRequest request) {
+        UUID userId = SecurityUtils.getCurrentUserId();
+        int affected = notificationService.markAsRead(userId, request.getIds());
+        return ResponseEntity.ok(BulkActionResultDto.builder().affected(affected).build());
+    }
+
+    @Operation(summary = "Delete the given notifications of the current user")
+    @PatchMapping("/bulk/delete")
+    public ResponseEntity<BulkActionResultDto> deleteNotifications(@Valid @RequestBody NotificationIdsRequest request) {
+        UUID userId = SecurityUtils.getCurrentUserId();
+        int affected = notificationService.deleteNotifications(userId, request.getIds());
+        return ResponseEntity.ok(BulkActionResultDto.builder().affected(affected).build());
+    }
+
     @Operation(summary = "Delete notification")
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteNotification(@PathVariable UUID id) {
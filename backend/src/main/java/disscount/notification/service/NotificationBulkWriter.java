@@ -0,0 +1,256 @@
+package disscount.notification.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import disscount.notification.domain.NotificationEntry;
+import disscount.notification.dto.NotificationDraft;
+import disscount.notification.dto.NotificationDto;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk path for system-generated notifications (alert digests and the like). Each batch
+ * is written with one statement that does three things: inserts all rows from unnested
+ * arrays, bumps the unread counters per user and returns the new rows for the stream push.
+ * <p>
+ * {@link #write} runs a batch right away, inside the caller's transaction when there is
+ * one. {@link #enqueue} is for producers that should not wait on the database: drafts go
+ * on a bounded queue, producers block when it is full (the backpressure), and a writer
+ * thread, started on first use, drains up to {@link #BATCH_SIZE} drafts at a time. A batch
+ * that keeps failing is retried with backoff, then split in halves so one bad draft
+ * cannot take the rest down with it.
+ * <p>
+ * Users are never loaded. The join on app_user replaces the per-row user lookup of
+ * createNotification, so a draft for an unknown user is dropped instead of failing the
+ * batch.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NotificationBulkWriter {
+
+    private static final int QUEUE_CAPACITY = 100_000;
+    private static final int BATCH_SIZE = 5000;
+    private static final long POLL_TIMEOUT_MS = 200;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long RETRY_BACKOFF_MS = 1000;
+
+    private static final TypeReference<List<NotificationEntry>> ENTRIES_TYPE = new TypeReference<>() {
+    };
+
+    private static final String INSERT_SQL = """
+            WITH inserted AS (
+                INSERT INTO notification (id, user_id, message, is_read,
+                                          related_product_api_id, related_store_api_id, entries, created_at)
+                SELECT gen_random_uuid(), d.user_id, d.message, false, d.product_api_id, d.store_api_id,
+                       d.entries::jsonb, ?
+                FROM unnest(?::uuid[], ?::text[], ?::text[], ?::text[], ?::text[])
+                     AS d(user_id, message, product_api_id, store_api_id, entries)
+                JOIN app_user u ON u.id = d.user_id
+                RETURNING id, user_id, message, related_product_api_id, related_store_api_id, entries, created_at
+            ), counted AS (
+                -- As in NotificationCounterRepository.addCreated: rows at or before a concurrently
+                -- advanced read watermark are already read
+                INSERT INTO notification_counter (user_id, unread_count)
+                SELECT user_id, COUNT(*) FROM inserted GROUP BY user_id
+                ON CONFLICT (user_id) DO UPDATE
+                SET unread_count = notification_counter.unread_count + EXCLUDED.unread_count
+                WHERE notification_counter.read_up_to IS NULL OR notification_counter.read_up_to < ?
+            )
+            SELECT id, user_id, message, related_product_api_id, related_store_api_id, entries::text AS entries, created_at
+            FROM inserted
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+
+    private final BlockingQueue<NotificationDraft> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private volatile boolean running = true;
+    private Thread writer;
+
+    /**
+     * Queue one draft, blocking while the queue is full.
+     */
+    public void enqueue(NotificationDraft draft) throws InterruptedException {
+        if (!running) {
+            throw new IllegalStateException("Notification writer is shut down");
+        }
+        startWriter();
+        queue.put(draft);
+    }
+
+    /**
+     * Queue every draft in order, blocking whenever the queue is full.
+     */
+    public void enqueueAll(Iterable<NotificationDraft> drafts) throws InterruptedException {
+        for (NotificationDraft draft : drafts) {
+            enqueue(draft);
+        }
+    }
+
+    /**
+     * Write the drafts now, in the caller's transaction if there is one. Stream listeners
+     * get the new notifications after that transaction commits.
+     * @return the notifications created; drafts for unknown users are skipped
+     */
+    public List<NotificationDto> write(List<NotificationDraft> drafts) {
+        if (drafts.isEmpty()) {
+            return List.of();
+        }
+
+        int size = drafts.size();
+        UUID[] userIds = new UUID[size];
+        String[] messages = new String[size];
+        String[] productApiIds = new String[size];
+        String[] storeApiIds = new String[size];
+        String[] entries = new String[size];
+        for (int i = 0; i < size; i++) {
+            NotificationDraft draft = drafts.get(i);
+            userIds[i] = draft.userId();
+            messages[i] = draft.message();
+            productApiIds[i] = draft.relatedProductApiId();
+            storeApiIds[i] = draft.relatedStoreApiId();
+            entries[i] = writeEntries(draft.entries());
+        }
+        LocalDateTime createdAt = LocalDateTime.now();
+
+        List<NotificationDto> inserted = transactionTemplate.execute(status -> {
+            List<NotificationDto> rows = jdbcTemplate.query(INSERT_SQL, ps -> {
+                ps.setTimestamp(1, Timestamp.valueOf(createdAt));
+                ps.setArray(2, ps.getConnection().createArrayOf("uuid", userIds));
+                ps.setArray(3, ps.getConnection().createArrayOf("text", messages));
+                ps.setArray(4, ps.getConnection().createArrayOf("text", productApiIds));
+                ps.setArray(5, ps.getConnection().createArrayOf("text", storeApiIds));
+                ps.setArray(6, ps.getConnection().createArrayOf("text", entries));
+                ps.setTimestamp(7, Timestamp.valueOf(createdAt));
+            }, (rs, rowNum) -> NotificationDto.builder()
+                    .id(rs.getObject("id", UUID.class))
+                    .userId(rs.getObject("user_id", UUID.class))
+                    .message(rs.getString("message"))
+                    .isRead(false)
+                    .relatedProductApiId(rs.getString("related_product_api_id"))
+                    .relatedStoreApiId(rs.getString("related_store_api_id"))
+                    .entries(readEntries(rs.getString("entries")))
+                    .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+                    .build());
+
+            // Delivered to stream listeners after this transaction commits
+            rows.forEach(n -> eventPublisher.publishEvent(new NotificationCreatedEvent(n)));
+            return rows;
+        });
+
+        if (inserted.size() < size) {
+            log.warn("Skipped {} notifications for unknown users", size - inserted.size());
+        }
+        return inserted;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        Thread current;
+        synchronized (this) {
+            current = writer;
+        }
+        if (current != null) {
+            current.join(TimeUnit.SECONDS.toMillis(30));
+        }
+    }
+
+    private synchronized void startWriter() {
+        if (writer == null) {
+            writer = Thread.ofPlatform().name("notification-writer").daemon().start(this::drainLoop);
+        }
+    }
+
+    private void drainLoop() {
+        List<NotificationDraft> batch = new ArrayList<>(BATCH_SIZE);
+        while (running || !queue.isEmpty()) {
+            try {
+                NotificationDraft first = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, BATCH_SIZE - 1);
+                writeWithRetry(batch);
+            } catch (InterruptedException e) {
+                log.warn("Notification writer interrupted with {} notifications unwritten", batch.size() + queue.size());
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // Transient failures (lost connection, failover) get retried as a whole
+    private void writeWithRetry(List<NotificationDraft> batch) throws InterruptedException {
+        for (int attempt = 1; attempt < MAX_ATTEMPTS; attempt++) {
+            try {
+                write(batch);
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Writing {} notifications failed (attempt {}/{}): {}",
+                        batch.size(), attempt, MAX_ATTEMPTS, e.getMessage());
+                Thread.sleep(RETRY_BACKOFF_MS << (attempt - 1));
+            }
+        }
+        writeOrSplit(batch);
+    }
+
+    // Persistent failures are narrowed down by halving until only the failing drafts are dropped
+    private void writeOrSplit(List<NotificationDraft> batch) {
+        try {
+            write(batch);
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                log.error("Dropping notification for user {}", batch.get(0).userId(), e);
+                return;
+            }
+            int half = batch.size() / 2;
+            writeOrSplit(batch.subList(0, half));
+            writeOrSplit(batch.subList(half, batch.size()));
+        }
+    }
+
+    private String writeEntries(List<NotificationEntry> entries) {
+        if (entries == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(entries);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Unserializable notification entries", e);
+        }
+    }
+
+    private List<NotificationEntry> readEntries(String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, ENTRIES_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Malformed notification entries", e);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package disscount.notification.service;
+
+import disscount.notification.dto.NotificationDto;
+
+/**
+ * Published inside the creating transaction; stream listeners act on it only after commit.
+ */
+public record NotificationCreatedEvent(NotificationDto notification) {
+}
@@ -0,0 +1,104 @@
+package disscount.notification.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import disscount.notification.domain.NotificationEntry;
+import disscount.notification.dto.NotificationDraft;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Turns pending alerts into digest notifications: every window, each user's pending
+ * alerts become one notification whose entries list the products, best discount first.
+ * Several alerts for the same product within a window (e.g. a percentage and an absolute
+ * watch) collapse into its latest entry.
+ * <p>
+ * A flush is one transaction: it deletes the pending rows, folding them into one draft per
+ * user, and writes the drafts through {@link NotificationBulkWriter#write}, the same path
+ * as every other system notification. It commits atomically, so an alert is never dropped
+ * or reported twice. Push and email then see one notification per user instead of one
+ * per product.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NotificationDigestService {
+
+    private static final TypeReference<List<NotificationEntry>> ENTRIES_TYPE = new TypeReference<>() {
+    };
+
+    private static final String TAKE_DIGESTS_SQL = """
+            WITH taken AS (
+                DELETE FROM pending_alert WHERE created_at <= ?
+                RETURNING user_id, product_api_id, entry, created_at
+            ), latest AS (
+                SELECT DISTINCT ON (user_id, product_api_id) user_id, entry
+                FROM taken
+                ORDER BY user_id, product_api_id, created_at DESC
+            ), digest AS (
+                SELECT user_id,
+                       jsonb_agg(entry ORDER BY (entry->>'discountPercentage')::numeric DESC) AS entries,
+                       COUNT(*) AS entry_count
+                FROM latest
+                GROUP BY user_id
+            )
+            SELECT d.user_id,
+                   CASE WHEN d.entry_count = 1
+                        THEN 'Sniženje: ' || COALESCE(d.entries->0->>'productName', d.entries->0->>'productApiId')
+                             || ' za ' || to_char((d.entries->0->>'price')::numeric, 'FM999990.00') || ' €'
+                             || ' u ' || (d.entries->0->>'chainCode')
+                        ELSE d.entry_count || ' proizvoda s liste praćenja je na sniženju'
+                   END AS message,
+                   CASE WHEN d.entry_count = 1 THEN d.entries->0->>'productApiId' END AS related_product_api_id,
+                   CASE WHEN d.entry_count = 1 THEN d.entries->0->>'chainCode' END AS related_store_api_id,
+                   d.entries::text AS entries
+            FROM digest d
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final NotificationBulkWriter notificationBulkWriter;
+    private final ObjectMapper objectMapper;
+
+    @Scheduled(fixedDelayString = "${notification.digest.window-ms}")
+    public void flush() {
+        LocalDateTime now = LocalDateTime.now();
+
+        Integer digests = transactionTemplate.execute(status -> {
+            List<NotificationDraft> drafts = jdbcTemplate.query(TAKE_DIGESTS_SQL,
+                    (rs, rowNum) -> new NotificationDraft(
+                            rs.getObject("user_id", UUID.class),
+                            rs.getString("message"),
+                            rs.getString("related_product_api_id"),
+                            rs.getString("related_store_api_id"),
+                            readEntries(rs.getString("entries"))),
+                    Timestamp.valueOf(now));
+
+            // Same transaction: the pending rows are only gone if the digests were written
+            return notificationBulkWriter.write(drafts).size();
+        });
+
+        if (digests != null && digests > 0) {
+            log.info("Wrote {} alert digest notifications", digests);
+        }
+    }
+
+    private List<NotificationEntry> readEntries(String json) {
+        try {
+            return objectMapper.readValue(json, ENTRIES_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Malformed digest entries", e);
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package disscount.notification.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailParseException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import disscount.notification.dao.NotificationCounterRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Emails unread notifications as per-user digests, for users with
+ * notificationsEmailEnabledAt set and only for notifications created after they opted in.
+ * <p>
+ * A scheduled pass collects everything not yet emailed and hands one digest per user to a
+ * bounded worker pool. Request threads never touch SMTP. Workers pace sends per recipient
+ * domain and retry transient failures with backoff. A successful send advances the user's
+ * emailedUpTo watermark. A digest that still fails stays pending and is rebuilt by the
+ * next pass, so failures are retried across passes without a separate outbox table.
+ */
+@Slf4j
+@Service
+public class NotificationEmailDispatcher {
+
+    private static final int MAX_USERS_PER_PASS = 1_000;
+    private static final int MAX_ENTRIES_PER_DIGEST = 50;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final Duration RETRY_BACKOFF = Duration.ofSeconds(2);
+
+    // Unread, not yet emailed, created after opt-in; the email lives in the better-auth "user" table.
+    // Grouped per user so every digest covers all of the user's pending rows up to its watermark;
+    // the limit applies to users, never cutting one user's notifications in two.
+    private static final String PENDING_SQL = """
+            SELECT n.user_id, au.email, COUNT(*) AS total, MAX(n.created_at) AS up_to,
+                   (array_agg(n.message ORDER BY n.created_at))[1:%d] AS messages
+            FROM notification n
+            JOIN app_user u ON u.id = n.user_id
+            JOIN "user" au ON au.id = n.user_id
+            LEFT JOIN notification_counter c ON c.user_id = n.user_id
+            WHERE u.notifications_email_enabled_at IS NOT NULL
+              AND u.deleted_at IS NULL
+              AND n.deleted_at IS NULL
+              AND n.is_read = false
+              AND n.created_at > u.notifications_email_enabled_at
+              AND n.created_at > COALESCE(c.emailed_up_to, '-infinity')
+              AND n.created_at > COALESCE(c.read_up_to, '-infinity')
+              AND n.created_at <= ?
+            GROUP BY n.user_id, au.email
+            ORDER BY MIN(n.created_at)
+            LIMIT ?
+            """.formatted(MAX_ENTRIES_PER_DIGEST);
+
+    private static final RowMapper<Digest> DIGEST_ROW_MAPPER = (rs, rowNum) -> new Digest(
+            rs.getObject("user_id", UUID.class),
+            rs.getString("email"),
+            List.of((String[]) rs.getArray("messages").getArray()),
+            rs.getInt("total"),
+            rs.getTimestamp("up_to").toLocalDateTime());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final NotificationCounterRepository notificationCounterRepository;
+    private final ObjectProvider<JavaMailSender> mailSenderProvider;
+    private final boolean enabled;
+    private final String from;
+    private final long minIntervalPerDomainMs;
+
+    private final ThreadPoolExecutor workers;
+    private final Set<UUID> inFlight = ConcurrentHashMap.newKeySet();
+    private final Map<String, AtomicLong> nextSendByDomain = new ConcurrentHashMap<>();
+
+    public NotificationEmailDispatcher(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            NotificationCounterRepository notificationCounterRepository,
+            ObjectProvider<JavaMailSender> mailSenderProvider,
+            @Value("${notification.email.enabled}") boolean enabled,
+            @Value("${notification.email.from}") String from,
+            @Value("${notification.email.workers}") int workerCount,
+            @Value("${notification.email.per-domain-per-second}") double perDomainPerSecond) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.notificationCounterRepository = notificationCounterRepository;
+        this.mailSenderProvider = mailSenderProvider;
+        this.enabled = enabled;
+        this.from = from;
+        this.minIntervalPerDomainMs = (long) (1000 / perDomainPerSecond);
+        // Bounded queue; when it is full the pass stops and the remaining digests wait for the next one,
+        // so the scheduler thread never does SMTP I/O itself
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(MAX_USERS_PER_PASS), Thread.ofPlatform().name("notification-email-", 0).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Scheduled(fixedDelayString = "${notification.email.interval-ms}")
+    public void dispatchPending() {
+        JavaMailSender mailSender = mailSenderProvider.getIfAvailable();
+        if (!enabled || mailSender == null) {
+            return;
+        }
+
+        for (Digest digest : collectPending()) {
+            if (!inFlight.add(digest.userId())) {
+                continue;
+            }
+            try {
+                workers.execute(() -> {
+                    try {
+                        deliver(mailSender, digest);
+                    } finally {
+                        inFlight.remove(digest.userId());
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                inFlight.remove(digest.userId());
+                log.info("Email workers busy; remaining digests deferred to the next pass");
+                return;
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        workers.shutdown();
+        workers.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    private List<Digest> collectPending() {
+        return jdbcTemplate.query(PENDING_SQL, DIGEST_ROW_MAPPER, LocalDateTime.now(), MAX_USERS_PER_PASS).stream()
+                .filter(d -> d.email() != null && d.email().contains("@"))
+                .toList();
+    }
+
+    private void deliver(JavaMailSender mailSender, Digest digest) {
+        SimpleMailMessage message = buildMessage(digest);
+
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            try {
+                awaitDomainSlot(digest.email());
+                mailSender.send(message);
+                markEmailed(digest);
+                return;
+            } catch (MailParseException e) {
+                // Undeliverable address, retrying cannot help; skip these notifications
+                log.warn("Skipping email digest for user {}: {}", digest.userId(), e.getMessage());
+                markEmailed(digest);
+                return;
+            } catch (MailException e) {
+                log.warn("Email digest for user {} failed (attempt {}/{}): {}",
+                        digest.userId(), attempt, MAX_ATTEMPTS, e.getMessage());
+                if (!sleep(RETRY_BACKOFF.toMillis() << (attempt - 1))) {
+                    return;
+                }
+            }
+        }
+        // Watermark not advanced: the next pass picks these notifications up again
+    }
+
+    private SimpleMailMessage buildMessage(Digest digest) {
+        StringBuilder body = new StringBuilder("Imate nove obavijesti na Disscountu:\n\n");
+        digest.messages().forEach(m -> body.append("- ").append(m).append('\n'));
+        if (digest.total() > digest.messages().size()) {
+            body.append("\n... i još ").append(digest.total() - digest.messages().size()).append(" obavijesti.\n");
+        }
+        body.append("\nSve obavijesti: https://disscount.me\n")
+            .append("E-mail obavijesti možete isključiti u postavkama profila.\n");
+
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(from);
+        message.setTo(digest.email());
+        message.setSubject(digest.total() == 1
+                ? "Disscount: nova obavijest"
+                : "Disscount: " + digest.total() + " nove obavijesti");
+        message.setText(body.toString());
+        return message;
+    }
+
+    private void markEmailed(Digest digest) {
+        transactionTemplate.executeWithoutResult(status ->
+                notificationCounterRepository.advanceEmailedUpTo(digest.userId(), digest.upTo()));
+    }
+
+    // Reserves the next send slot for the recipient's domain and waits for it
+    private void awaitDomainSlot(String email) {
+        String domain = email.substring(email.lastIndexOf('@') + 1).toLowerCase(Locale.ROOT);
+        AtomicLong nextSend = nextSendByDomain.computeIfAbsent(domain, d -> new AtomicLong());
+        long now = System.currentTimeMillis();
+        long slot = nextSend.getAndUpdate(next -> Math.max(next, now) + minIntervalPerDomainMs);
+        sleep(Math.max(slot, now) - now);
+    }
+
+    private static boolean sleep(long millis) {
+        if (millis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // One user's pending notifications: the oldest MAX_ENTRIES_PER_DIGEST messages, the total count,
+    // and upTo, the createdAt of the newest one
+    private record Digest(UUID userId, String email, List<String> messages, int total, LocalDateTime upTo) {
+    }
+}
@@ -0,0 +1,196 @@
+package disscount.notification.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps notification range-partitioned by month on created_at. Partitions are created a
+ * few months ahead. Once a month is older than the retention period, its partition is
+ * dropped as a whole instead of being DELETEd row by row. Dropped unread rows are taken
+ * off the users' unread counters in the same transaction.
+ * <p>
+ * Rows outside every monthly partition (dated past the horizon, say) land in
+ * notification_default instead of failing the insert. Creating a month's partition moves
+ * its rows out of the default one; anything left there is logged on every run.
+ * <p>
+ * Hibernate creates notification as a plain table. On the first start this service
+ * converts it in place: it renames the table, creates the partitioned one, copies the
+ * rows and drops the old table, all in a single transaction. That runs once all beans are
+ * initialized (after ddl-auto and db/schema.sql) but before the web server starts, so no
+ * request waits on the exclusive lock it holds during the copy.
+ */
+@Slf4j
+@Service
+public class NotificationPartitionService implements SmartInitializingSingleton {
+
+    private static final int MONTHS_AHEAD = 3;
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("'y'yyyy'm'MM");
+    private static final Pattern PARTITION_NAME = Pattern.compile("notification_y(\\d{4})m(\\d{2})");
+
+    private static final String RELKIND_SQL = "SELECT relkind FROM pg_class WHERE oid = to_regclass('notification')";
+
+    private static final String DEFAULT_PARTITION = "notification_default";
+
+    private static final String PARTITIONS_SQL = """
+            SELECT c.relname FROM pg_inherits i
+            JOIN pg_class c ON c.oid = i.inhrelid
+            WHERE i.inhparent = to_regclass('notification')
+            """;
+
+    // Unread rows in a partition about to be dropped, per user, as the counters count them
+    private static final String RELEASE_UNREAD_SQL = """
+            UPDATE notification_counter c SET unread_count = GREATEST(c.unread_count - d.unread, 0)
+            FROM (
+                SELECT n.user_id, COUNT(*) AS unread FROM %s n
+                LEFT JOIN notification_counter w ON w.user_id = n.user_id
+                WHERE n.is_read = false AND n.deleted_at IS NULL
+                  AND n.created_at > COALESCE(w.read_up_to, '-infinity')
+                GROUP BY n.user_id
+            ) d
+            WHERE c.user_id = d.user_id
+            """;
+
+    private static final String MOVE_FROM_DEFAULT_SQL = """
+            WITH moved AS (
+                DELETE FROM notification_default WHERE created_at >= ? AND created_at < ? RETURNING *
+            )
+            INSERT INTO %s SELECT * FROM moved
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int retentionMonths;
+
+    public NotificationPartitionService(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            @Value("${notification.partition.retention-months}") int retentionMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.retentionMonths = retentionMonths;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        List<String> relkind = jdbcTemplate.queryForList(RELKIND_SQL, String.class);
+        if (!relkind.isEmpty() && "r".equals(relkind.get(0))) {
+            convertToPartitioned();
+        }
+        maintain();
+    }
+
+    @Scheduled(cron = "${notification.partition.cron}")
+    public void maintain() {
+        createDefaultPartition();
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= MONTHS_AHEAD; i++) {
+            createPartition(current.plusMonths(i));
+        }
+        dropExpiredPartitions(current.minusMonths(retentionMonths));
+
+        Long stray = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + DEFAULT_PARTITION, Long.class);
+        if (stray != null && stray > 0) {
+            log.warn("{} notifications fall outside the monthly partitions and sit in {}", stray, DEFAULT_PARTITION);
+        }
+    }
+
+    private void convertToPartitioned() {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("LOCK TABLE notification IN ACCESS EXCLUSIVE MODE");
+            jdbcTemplate.execute("ALTER TABLE notification RENAME TO notification_unpartitioned");
+            // Index and PK names are schema-wide; free them for the partitioned table
+            jdbcTemplate.execute("DROP INDEX IF EXISTS idx_notification_user_created_active");
+            jdbcTemplate.execute("ALTER TABLE notification_unpartitioned DROP CONSTRAINT IF EXISTS notification_pkey");
+
+            jdbcTemplate.execute("""
+                    CREATE TABLE notification (LIKE notification_unpartitioned INCLUDING DEFAULTS)
+                    PARTITION BY RANGE (created_at)
+                    """);
+            // The partition key has to be part of the primary key
+            jdbcTemplate.execute("ALTER TABLE notification ADD PRIMARY KEY (id, created_at)");
+            jdbcTemplate.execute("ALTER TABLE notification ADD FOREIGN KEY (user_id) REFERENCES app_user (id)");
+            jdbcTemplate.execute("""
+                    CREATE INDEX idx_notification_user_created_active
+                        ON notification (user_id, created_at DESC, id DESC)
+                        WHERE deleted_at IS NULL
+                    """);
+
+            createDefaultPartition();
+
+            // Covers every existing row, including any dated past the current month
+            LocalDate[] range = jdbcTemplate.queryForObject(
+                    "SELECT MIN(created_at)::date, MAX(created_at)::date FROM notification_unpartitioned",
+                    (rs, rowNum) -> new LocalDate[]{
+                            rs.getObject(1, LocalDate.class), rs.getObject(2, LocalDate.class)});
+            YearMonth month = range[0] != null ? YearMonth.from(range[0]) : YearMonth.now();
+            YearMonth last = range[1] != null && range[1].isAfter(LocalDate.now())
+                    ? YearMonth.from(range[1]) : YearMonth.now();
+            for (; !month.isAfter(last); month = month.plusMonths(1)) {
+                createPartition(month);
+            }
+
+            int copied = jdbcTemplate.update("INSERT INTO notification SELECT * FROM notification_unpartitioned");
+            jdbcTemplate.execute("DROP TABLE notification_unpartitioned");
+            log.info("Converted notification to a monthly partitioned table ({} rows)", copied);
+        });
+    }
+
+    private void createDefaultPartition() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + DEFAULT_PARTITION + " PARTITION OF notification DEFAULT");
+    }
+
+    private void createPartition(YearMonth month) {
+        String partition = "notification_" + month.format(PARTITION_SUFFIX);
+        LocalDateTime from = month.atDay(1).atStartOfDay();
+        LocalDateTime to = month.plusMonths(1).atDay(1).atStartOfDay();
+        String bounds = " FOR VALUES FROM ('" + from.toLocalDate() + "') TO ('" + to.toLocalDate() + "')";
+
+        Boolean hasDefaultRows = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM " + DEFAULT_PARTITION + " WHERE created_at >= ? AND created_at < ?)",
+                Boolean.class, from, to);
+        if (!Boolean.TRUE.equals(hasDefaultRows)) {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partition + " PARTITION OF notification" + bounds);
+            return;
+        }
+
+        // Postgres rejects a partition whose range still has rows in the default one, so the
+        // rows go into a plain table first and that is attached
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("LOCK TABLE " + DEFAULT_PARTITION + " IN ACCESS EXCLUSIVE MODE");
+            jdbcTemplate.execute("CREATE TABLE " + partition + " (LIKE notification INCLUDING DEFAULTS)");
+            int moved = jdbcTemplate.update(MOVE_FROM_DEFAULT_SQL.formatted(partition), from, to);
+            jdbcTemplate.execute("ALTER TABLE notification ATTACH PARTITION " + partition + bounds);
+            log.info("Created notification partition {} with {} rows from {}", partition, moved, DEFAULT_PARTITION);
+        });
+    }
+
+    private void dropExpiredPartitions(YearMonth oldestKept) {
+        for (String partition : jdbcTemplate.queryForList(PARTITIONS_SQL, String.class)) {
+            Matcher matcher = PARTITION_NAME.matcher(partition);
+            if (!matcher.matches()) {
+                continue;
+            }
+            YearMonth month = YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+            if (month.isBefore(oldestKept)) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.update(RELEASE_UNREAD_SQL.formatted(partition));
+                    jdbcTemplate.execute("DROP TABLE " + partition);
+                });
+                log.info("Dropped notification partition {} (retention {} months)", partition, retentionMonths);
+            }
+        }
+    }
+}
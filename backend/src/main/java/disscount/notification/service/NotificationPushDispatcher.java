@@ -0,0 +1,133 @@
+package disscount.notification.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import disscount.notification.dto.NotificationDto;
+import disscount.pushSubscription.dao.PushSubscriptionRepository;
+import disscount.pushSubscription.domain.PushSubscription;
+import disscount.pushSubscription.service.WebPushSender;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Web Push for new notifications. Committed notifications are buffered per user and
+ * flushed every batch window as a single push per device, so an alert storm shows up as
+ * one "5 new notifications" message instead of five. Each flush fans out on virtual
+ * threads with a cap on in-flight requests. Endpoints the push service reports as gone
+ * are deleted in one statement.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NotificationPushDispatcher {
+
+    private static final int MAX_IN_FLIGHT = 1000;
+    private static final int USERS_PER_QUERY = 1000;
+
+    private final WebPushSender webPushSender;
+    private final PushSubscriptionRepository pushSubscriptionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    private final Map<UUID, Pending> pendingByUser = new ConcurrentHashMap<>();
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onNotificationCreated(NotificationCreatedEvent event) {
+        if (!webPushSender.isConfigured()) {
+            return;
+        }
+        NotificationDto notification = event.notification();
+        pendingByUser.merge(notification.getUserId(), new Pending(1, notification.getMessage()),
+                (current, added) -> new Pending(current.count() + 1, added.latestMessage()));
+    }
+
+    @Scheduled(fixedDelayString = "${notification.push.batch-window-ms}")
+    public void flush() {
+        if (pendingByUser.isEmpty()) {
+            return;
+        }
+
+        // remove() hands each user's batch to exactly one flush, even with events still arriving
+        Map<UUID, Pending> batch = new LinkedHashMap<>();
+        for (UUID userId : Set.copyOf(pendingByUser.keySet())) {
+            Pending pending = pendingByUser.remove(userId);
+            if (pending != null) {
+                batch.put(userId, pending);
+            }
+        }
+
+        List<UUID> userIds = new ArrayList<>(batch.keySet());
+        for (int from = 0; from < userIds.size(); from += USERS_PER_QUERY) {
+            List<UUID> chunk = userIds.subList(from, Math.min(from + USERS_PER_QUERY, userIds.size()));
+            deliver(pushSubscriptionRepository.findDeliverableByUserIds(chunk), batch);
+        }
+    }
+
+    private void deliver(List<PushSubscription> subscriptions, Map<UUID, Pending> batch) {
+        Map<UUID, byte[]> payloadByUser = new HashMap<>();
+        Set<String> gone = ConcurrentHashMap.newKeySet();
+        Semaphore inFlight = new Semaphore(MAX_IN_FLIGHT);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (PushSubscription subscription : subscriptions) {
+                UUID userId = subscription.getUser().getId();
+                byte[] payload = payloadByUser.computeIfAbsent(userId, id -> buildPayload(batch.get(id)));
+                String endpoint = subscription.getEndpoint();
+                String p256dh = subscription.getP256dh();
+                String auth = subscription.getAuth();
+
+                inFlight.acquireUninterruptibly();
+                executor.execute(() -> {
+                    try {
+                        if (webPushSender.send(endpoint, p256dh, auth, payload) == WebPushSender.Result.GONE) {
+                            gone.add(endpoint);
+                        }
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+
+        if (!gone.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> pushSubscriptionRepository.deleteByEndpointIn(gone));
+            log.info("Pruned {} expired push subscriptions", gone.size());
+        }
+    }
+
+    private byte[] buildPayload(Pending pending) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("title", "Disscount");
+        payload.put("body", pending.count() == 1
+                ? pending.latestMessage()
+                : "Imate " + pending.count() + " nove obavijesti");
+        payload.put("count", pending.count());
+        payload.put("url", "/");
+        try {
+            return objectMapper.writeValueAsBytes(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize push payload", e);
+        }
+    }
+
+    private record Pending(int count, String latestMessage) {
+    }
+}
@@ -1,29 +1,92 @@
 package disscount.notification.service;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import disscount.common.dto.CursorPageDto;
 import disscount.exceptions.BadRequestException;
+import disscount.notification.dao.NotificationCounterRepository;
 import disscount.notification.dao.NotificationRepository;
 import disscount.notification.domain.Notification;
 import disscount.notification.dto.NotificationDto;
 import disscount.notification.dto.NotificationRequest;
 import disscount.user.dao.UserRepository;
 import disscount.user.domain.User;
+import disscount.util.CursorUtils;
 
+import java.sql.Array;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class NotificationService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
+    // Bulk actions: one statement each, which changes the rows and moves the unread counter
+    // by the number that were unread. The ID array binds as a single parameter, so the
+    // plan is the same for 1 or 500 IDs.
+    private static final String BULK_MARK_READ_SQL = """
+            WITH changed AS (
+                UPDATE notification n SET is_read = true
+                WHERE n.id = ANY(?) AND n.user_id = ? AND n.is_read = false AND n.deleted_at IS NULL
+                  AND n.created_at > COALESCE(
+                      (SELECT c.read_up_to FROM notification_counter c WHERE c.user_id = n.user_id), '-infinity')
+                RETURNING n.id
+            ), counter AS (
+                UPDATE notification_counter c
+                SET unread_count = GREATEST(c.unread_count - (SELECT COUNT(*) FROM changed), 0)
+                WHERE c.user_id = ?
+            )
+            SELECT COUNT(*) FROM changed
+            """;
+
+    private static final String BULK_DELETE_SQL = """
+            WITH changed AS (
+                UPDATE notification n SET deleted_at = ?
+                WHERE n.id = ANY(?) AND n.user_id = ? AND n.deleted_at IS NULL
+                RETURNING n.is_read = false AND n.created_at > COALESCE(
+                    (SELECT c.read_up_to FROM notification_counter c WHERE c.user_id = n.user_id), '-infinity')
+                    AS was_unread
+            ), counter AS (
+                UPDATE notification_counter c
+                SET unread_count = GREATEST(c.unread_count - (SELECT COUNT(*) FROM changed WHERE was_unread), 0)
+                WHERE c.user_id = ?
+            )
+            SELECT COUNT(*) FROM changed
+            """;
+
     private final NotificationRepository notificationRepository;
+    private final NotificationCounterRepository notificationCounterRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedUnreadCounters() {
+        int seeded = notificationCounterRepository.seedFromNotifications();
+        if (seeded > 0) {
+            log.info("Seeded unread notification counters for {} users", seeded);
+        }
+
+        int watermarks = notificationCounterRepository.seedReadWatermarks();
+        if (watermarks > 0) {
+            log.info("Moved read state of {} users onto read watermarks", watermarks);
+        }
+    }
 
     public NotificationDto createNotification(UUID userId, NotificationRequest request) {
         User user = userRepository.findById(userId)
@@ -37,43 +100,122 @@ public class NotificationService {
                 .build();
 
         Notification saved = notificationRepository.save(notification);
-        return mapToDto(saved);
+        notificationCounterRepository.addCreated(userId, saved.getCreatedAt());
+
+        NotificationDto created = mapToDto(saved, null);
+        eventPublisher.publishEvent(new NotificationCreatedEvent(created));
+        return created;
     }
 
     @Transactional(readOnly = true)
     public Page<NotificationDto> getUserNotifications(UUID userId, Pageable pageable) {
         Page<Notification> notifications = notificationRepository.findByUserId(userId, pageable);
-        return notifications.map(this::mapToDto);
+        LocalDateTime readUpTo = findReadUpTo(userId);
+        return notifications.map(n -> mapToDto(n, readUpTo));
+    }
+
+    /**
+     * Keyset page ordered newest first. Cost is independent of how deep the client has
+     * scrolled and no COUNT query is issued; one extra row is fetched to detect the end.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDto<NotificationDto> getUserNotifications(UUID userId, String cursor, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        CursorUtils.Cursor after = CursorUtils.decode(cursor);
+
+        List<Notification> rows = after == null
+                ? notificationRepository.findFirstPageByUserId(userId, size + 1)
+                : notificationRepository.findPageAfterByUserId(userId, after.createdAt(), after.id(), size + 1);
+
+        boolean hasMore = rows.size() > size;
+        List<Notification> page = hasMore ? rows.subList(0, size) : rows;
+        Notification last = page.isEmpty() ? null : page.get(page.size() - 1);
+        LocalDateTime readUpTo = findReadUpTo(userId);
+
+        return CursorPageDto.<NotificationDto>builder()
+                .items(page.stream().map(n -> mapToDto(n, readUpTo)).toList())
+                .nextCursor(hasMore ? CursorUtils.encode(last.getCreatedAt(), last.getId()) : null)
+                .build();
     }
 
+    @Transactional(readOnly = true)
+    public List<NotificationDto> getUserNotificationsAfter(UUID userId, CursorUtils.Cursor after, int limit) {
+        LocalDateTime readUpTo = findReadUpTo(userId);
+        return notificationRepository.findAfterByUserId(userId, after.createdAt(), after.id(), limit).stream()
+                .map(n -> mapToDto(n, readUpTo))
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    public int getUnreadCount(UUID userId) {
+        return notificationCounterRepository.findUnreadCountByUserId(userId).orElse(0);
+    }
+
+    // Row changes are conditional updates, so the counter only moves by what actually changed
     public void markAsRead(UUID id) {
         Notification notification = notificationRepository.findById(id)
                 .orElseThrow(() -> new BadRequestException("Notification not found"));
 
-        notification.setIsRead(true);
-        notificationRepository.save(notification);
+        if (notificationRepository.markAsReadById(id) > 0) {
+            notificationCounterRepository.addUnread(notification.getUser().getId(), -1);
+        }
     }
 
-    public int markAllAsRead(UUID userId) {
-        return notificationRepository.markAllAsReadByUserId(userId);
+    // Advances the watermark; notification rows are not touched
+    public void markAllAsRead(UUID userId) {
+        notificationCounterRepository.markAllAsRead(userId, LocalDateTime.now());
+    }
+
+    public int markAsRead(UUID userId, List<UUID> ids) {
+        Integer affected = jdbcTemplate.query(BULK_MARK_READ_SQL, ps -> {
+            Array idArray = ps.getConnection().createArrayOf("uuid", ids.toArray());
+            ps.setArray(1, idArray);
+            ps.setObject(2, userId);
+            ps.setObject(3, userId);
+        }, rs -> rs.next() ? rs.getInt(1) : 0);
+        return affected != null ? affected : 0;
+    }
+
+    public int deleteNotifications(UUID userId, List<UUID> ids) {
+        Integer affected = jdbcTemplate.query(BULK_DELETE_SQL, ps -> {
+            Array idArray = ps.getConnection().createArrayOf("uuid", ids.toArray());
+            ps.setTimestamp(1, Timestamp.valueOf(LocalDateTime.now()));
+            ps.setArray(2, idArray);
+            ps.setObject(3, userId);
+            ps.setObject(4, userId);
+        }, rs -> rs.next() ? rs.getInt(1) : 0);
+        return affected != null ? affected : 0;
     }
 
     public void deleteNotification(UUID id) {
         Notification notification = notificationRepository.findById(id)
                 .orElseThrow(() -> new BadRequestException("Notification not found"));
 
-        notification.setDeletedAt(LocalDateTime.now());
-        notificationRepository.save(notification);
+        LocalDateTime now = LocalDateTime.now();
+        if (notificationRepository.softDeleteUnreadById(id, now) > 0) {
+            notificationCounterRepository.addUnread(notification.getUser().getId(), -1);
+        } else {
+            notificationRepository.softDeleteById(id, now);
+        }
     }
 
-    private NotificationDto mapToDto(Notification notification) {
+    private LocalDateTime findReadUpTo(UUID userId) {
+        return notificationCounterRepository.findReadUpToByUserId(userId).orElse(null);
+    }
+
+    // Read state is derived: flagged individually or covered by the user's watermark
+    private NotificationDto mapToDto(Notification notification, LocalDateTime readUpTo) {
+        boolean isRead = Boolean.TRUE.equals(notification.getIsRead())
+                || (readUpTo != null && !notification.getCreatedAt().isAfter(readUpTo));
+
         return NotificationDto.builder()
                 .id(notification.getId())
                 .userId(notification.getUser().getId())
                 .message(notification.getMessage())
-                .isRead(notification.getIsRead())
+                .isRead(isRead)
                 .relatedProductApiId(notification.getRelatedProductApiId())
                 .relatedStoreApiId(notification.getRelatedStoreApiId())
+                .entries(notification.getEntries())
                 .createdAt(notification.getCreatedAt())
                 .build();
     }
@@ -0,0 +1,205 @@
+package disscount.notification.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import disscount.notification.dto.NotificationDto;
+import disscount.util.CursorUtils;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-Sent Events channel for new notifications. Emitters are async servlet responses,
+ * so an idle connection holds no thread, only its registry entry and send queue.
+ * <p>
+ * Every emitter has one ordered queue, drained by at most one task at a time, so its
+ * events go out in the order they were queued and never concurrently. Each event id is
+ * the notification's keyset cursor. A reconnecting client sends it back as Last-Event-ID;
+ * the replay of everything it missed is the first entry of the new queue and pages from
+ * that cursor until it catches up, so live events queued meanwhile follow it.
+ * <p>
+ * SseEmitter.send is synchronized and blocks on the socket, which would pin virtual
+ * threads, so drains run on a small platform pool. A client that falls more than
+ * {@link #MAX_PENDING} events behind is disconnected and catches up through the replay.
+ */
+@Slf4j
+@Service
+public class NotificationStreamService {
+
+    // Clients reconnect with Last-Event-ID after this, which also bounds leaked emitters
+    private static final long EMITTER_TIMEOUT_MS = Duration.ofMinutes(30).toMillis();
+    private static final int REPLAY_PAGE_SIZE = 100;
+    private static final int MAX_PENDING = 1_000;
+    private static final Object HEARTBEAT = new Object();
+
+    private final NotificationService notificationService;
+    private final ExecutorService sendExecutor;
+
+    private final Map<UUID, Set<Channel>> channelsByUser = new ConcurrentHashMap<>();
+
+    public NotificationStreamService(
+            NotificationService notificationService,
+            @Value("${notification.stream.send-threads}") int sendThreads) {
+        this.notificationService = notificationService;
+        this.sendExecutor = Executors.newFixedThreadPool(sendThreads,
+                Thread.ofPlatform().name("notification-stream-", 0).factory());
+    }
+
+    public SseEmitter subscribe(UUID userId, String lastEventId) {
+        CursorUtils.Cursor after = CursorUtils.decode(lastEventId);
+        Channel channel = new Channel(userId, new SseEmitter(EMITTER_TIMEOUT_MS));
+
+        // Replay is queued before the channel is visible to live events, so it always goes first
+        if (after != null) {
+            channel.offer(new Replay(after));
+        }
+        // Added inside compute so a concurrent unregister cannot drop the set under us
+        channelsByUser.compute(userId, (id, channels) -> {
+            Set<Channel> set = channels != null ? channels : ConcurrentHashMap.newKeySet();
+            set.add(channel);
+            return set;
+        });
+
+        Runnable remove = () -> unregister(channel);
+        channel.emitter.onCompletion(remove);
+        channel.emitter.onTimeout(remove);
+        channel.emitter.onError(e -> remove.run());
+        return channel.emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onNotificationCreated(NotificationCreatedEvent event) {
+        NotificationDto notification = event.notification();
+        Set<Channel> channels = channelsByUser.get(notification.getUserId());
+        if (channels != null) {
+            channels.forEach(channel -> channel.offer(notification));
+        }
+    }
+
+    // Keeps proxies from closing idle connections and flushes out dead ones
+    @Scheduled(fixedDelayString = "${notification.stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        channelsByUser.values().forEach(channels -> channels.forEach(channel -> channel.offer(HEARTBEAT)));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        channelsByUser.values().forEach(channels -> channels.forEach(channel -> channel.emitter.complete()));
+        sendExecutor.shutdownNow();
+    }
+
+    private void unregister(Channel channel) {
+        channel.closed = true;
+        channelsByUser.computeIfPresent(channel.userId, (id, channels) -> {
+            channels.remove(channel);
+            return channels.isEmpty() ? null : channels;
+        });
+    }
+
+    private record Replay(CursorUtils.Cursor after) {
+    }
+
+    private final class Channel {
+
+        private final UUID userId;
+        private final SseEmitter emitter;
+        private final Queue<Object> queue = new ConcurrentLinkedQueue<>();
+        // Queued entries not yet sent; the drain task runs while this is above zero
+        private final AtomicInteger pending = new AtomicInteger();
+        // Only touched by the drain task. IDs the replay sent, so the same rows arriving live
+        // (committed just before the replay read them) are not sent twice.
+        private final Set<UUID> replayed = new HashSet<>();
+        private volatile boolean closed;
+
+        Channel(UUID userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        void offer(Object entry) {
+            if (closed) {
+                return;
+            }
+            if (pending.get() >= MAX_PENDING && entry != HEARTBEAT) {
+                log.debug("Notification stream of user {} fell behind, closing it", userId);
+                close();
+                return;
+            }
+            queue.add(entry);
+            if (pending.getAndIncrement() == 0) {
+                sendExecutor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                Object entry = queue.poll();
+                if (!closed) {
+                    try {
+                        send(entry);
+                    } catch (IOException | RuntimeException e) {
+                        log.debug("Dropping notification stream of user {}: {}", userId, e.getMessage());
+                        close();
+                    }
+                }
+            } while (pending.decrementAndGet() > 0);
+        }
+
+        private void send(Object entry) throws IOException {
+            if (entry == HEARTBEAT) {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+            } else if (entry instanceof Replay replay) {
+                replay(replay.after());
+            } else {
+                NotificationDto notification = (NotificationDto) entry;
+                if (!replayed.contains(notification.getId())) {
+                    sendNotification(notification);
+                }
+            }
+        }
+
+        // Pages forward from the client's cursor until a short page shows it has caught up
+        private void replay(CursorUtils.Cursor after) throws IOException {
+            CursorUtils.Cursor cursor = after;
+            List<NotificationDto> page;
+            do {
+                page = notificationService.getUserNotificationsAfter(userId, cursor, REPLAY_PAGE_SIZE);
+                for (NotificationDto notification : page) {
+                    sendNotification(notification);
+                    replayed.add(notification.getId());
+                    cursor = new CursorUtils.Cursor(notification.getCreatedAt(), notification.getId());
+                }
+            } while (page.size() == REPLAY_PAGE_SIZE && !closed);
+        }
+
+        private void sendNotification(NotificationDto notification) throws IOException {
+            emitter.send(SseEmitter.event()
+                    .id(CursorUtils.encode(notification.getCreatedAt(), notification.getId()))
+                    .name("notification")
+                    .data(notification));
+        }
+
+        private void close() {
+            unregister(this);
+            emitter.complete();
+        }
+    }
+}
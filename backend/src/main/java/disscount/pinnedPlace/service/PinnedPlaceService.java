@@ -1,6 +1,7 @@
 package disscount.pinnedPlace.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -9,8 +10,7 @@ import disscount.pinnedPlace.dao.PinnedPlaceRepository;
 import disscount.pinnedPlace.domain.PinnedPlace;
 import disscount.pinnedPlace.dto.BulkPinnedPlaceRequest;
 import disscount.pinnedPlace.dto.PinnedPlaceDto;
-import disscount.user.dao.UserRepository;
-import disscount.user.domain.User;
+import disscount.pinnedPlace.dto.PinnedPlaceRequest;
 
 import java.util.List;
 import java.util.UUID;
@@ -21,41 +21,73 @@ import java.util.stream.Collectors;
 @Transactional
 public class PinnedPlaceService {
 
+    private static final String DELETE_REMOVED_SQL =
+            "DELETE FROM pinned_place WHERE user_id = ? AND NOT (place_api_id = ANY(?))";
+
+    // Only new or renamed pins are written. RETURNING skips the untouched ones, whose IDs
+    // come from the statement's snapshot of pinned_place, so the result is the full set.
+    private static final String UPSERT_SQL = """
+            WITH requested AS (
+                SELECT p.api_id, p.name, p.ord
+                FROM unnest(?::text[], ?::text[]) WITH ORDINALITY AS p(api_id, name, ord)
+            ), upserted AS (
+                INSERT INTO pinned_place (id, user_id, place_api_id, place_name)
+                SELECT gen_random_uuid(), ?, r.api_id, r.name FROM requested r
+                ON CONFLICT (user_id, place_api_id) DO UPDATE SET place_name = EXCLUDED.place_name
+                WHERE pinned_place.place_name IS DISTINCT FROM EXCLUDED.place_name
+                RETURNING id, place_api_id
+            )
+            SELECT COALESCE(u.id, e.id) AS id, r.api_id AS place_api_id, r.name AS place_name
+            FROM requested r
+            LEFT JOIN upserted u ON u.place_api_id = r.api_id
+            LEFT JOIN pinned_place e ON e.user_id = ? AND e.place_api_id = r.api_id
+            ORDER BY r.ord
+            """;
+
     private final PinnedPlaceRepository pinnedPlaceRepository;
-    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
 
+    /**
+     * Replaces the user's pinned places with the requested set in two statements whatever the
+     * list size: one delete for pins no longer requested, one multi-row upsert for the rest.
+     * Unchanged pins keep their rows and IDs and are not rewritten.
+     */
     public List<PinnedPlaceDto> updatePinnedPlaces(UUID userId, BulkPinnedPlaceRequest request) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new BadRequestException("User not found"));
-
-        // First, delete all existing pinned places for this user
-        List<PinnedPlace> existingPlaces = pinnedPlaceRepository.findByUserId(userId);
-        pinnedPlaceRepository.deleteAll(existingPlaces);
-        pinnedPlaceRepository.flush(); // Force the delete operation to complete before insert
+        List<PinnedPlaceRequest> requested = request.getPlaces() != null ? request.getPlaces() : List.of();
 
         // Check for duplicate place IDs in the request
-        long uniquePlaceIds = request.getPlaces().stream()
-                .map(placeRequest -> placeRequest.getPlaceApiId())
+        long uniquePlaceIds = requested.stream()
+                .map(PinnedPlaceRequest::getPlaceApiId)
                 .distinct()
                 .count();
-        
-        if (uniquePlaceIds < request.getPlaces().size()) {
+
+        if (uniquePlaceIds < requested.size()) {
             throw new BadRequestException("Duplicate place IDs found in request");
         }
 
-        // Then create new pinned places
-        List<PinnedPlace> newPinnedPlaces = request.getPlaces().stream()
-                .map(placeRequest -> PinnedPlace.builder()
-                        .user(user)
-                        .placeApiId(placeRequest.getPlaceApiId())
-                        .placeName(placeRequest.getPlaceName())
-                        .build())
-                .collect(Collectors.toList());
+        String[] placeApiIds = requested.stream().map(PinnedPlaceRequest::getPlaceApiId).toArray(String[]::new);
+        String[] placeNames = requested.stream().map(PinnedPlaceRequest::getPlaceName).toArray(String[]::new);
 
-        List<PinnedPlace> saved = pinnedPlaceRepository.saveAll(newPinnedPlaces);
-        return saved.stream()
-                .map(this::mapToDto)
-                .collect(Collectors.toList());
+        jdbcTemplate.update(DELETE_REMOVED_SQL, ps -> {
+            ps.setObject(1, userId);
+            ps.setArray(2, ps.getConnection().createArrayOf("text", placeApiIds));
+        });
+
+        if (placeApiIds.length == 0) {
+            return List.of();
+        }
+
+        return jdbcTemplate.query(UPSERT_SQL, ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("text", placeApiIds));
+            ps.setArray(2, ps.getConnection().createArrayOf("text", placeNames));
+            ps.setObject(3, userId);
+            ps.setObject(4, userId);
+        }, (rs, rowNum) -> PinnedPlaceDto.builder()
+                .id(rs.getObject("id", UUID.class))
+                .userId(userId)
+                .placeApiId(rs.getString("place_api_id"))
+                .placeName(rs.getString("place_name"))
+                .build());
     }
 
     @Transactional(readOnly = true)
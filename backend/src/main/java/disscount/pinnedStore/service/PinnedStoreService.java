@@ -1,6 +1,7 @@
 package disscount.pinnedStore.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -9,8 +10,7 @@ import disscount.pinnedStore.dao.PinnedStoreRepository;
 import disscount.pinnedStore.domain.PinnedStore;
 import disscount.pinnedStore.dto.BulkPinnedStoreRequest;
 import disscount.pinnedStore.dto.PinnedStoreDto;
-import disscount.user.dao.UserRepository;
-import disscount.user.domain.User;
+import disscount.pinnedStore.dto.PinnedStoreRequest;
 
 import java.util.List;
 import java.util.UUID;
@@ -21,41 +21,73 @@ import java.util.stream.Collectors;
 @Transactional
 public class PinnedStoreService {
 
+    private static final String DELETE_REMOVED_SQL =
+            "DELETE FROM pinned_store WHERE user_id = ? AND NOT (store_api_id = ANY(?))";
+
+    // Only new or renamed pins are written. RETURNING skips the untouched ones, whose IDs
+    // come from the statement's snapshot of pinned_store, so the result is the full set.
+    private static final String UPSERT_SQL = """
+            WITH requested AS (
+                SELECT p.api_id, p.name, p.ord
+                FROM unnest(?::text[], ?::text[]) WITH ORDINALITY AS p(api_id, name, ord)
+            ), upserted AS (
+                INSERT INTO pinned_store (id, user_id, store_api_id, store_name)
+                SELECT gen_random_uuid(), ?, r.api_id, r.name FROM requested r
+                ON CONFLICT (user_id, store_api_id) DO UPDATE SET store_name = EXCLUDED.store_name
+                WHERE pinned_store.store_name IS DISTINCT FROM EXCLUDED.store_name
+                RETURNING id, store_api_id
+            )
+            SELECT COALESCE(u.id, e.id) AS id, r.api_id AS store_api_id, r.name AS store_name
+            FROM requested r
+            LEFT JOIN upserted u ON u.store_api_id = r.api_id
+            LEFT JOIN pinned_store e ON e.user_id = ? AND e.store_api_id = r.api_id
+            ORDER BY r.ord
+            """;
+
     private final PinnedStoreRepository pinnedStoreRepository;
-    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
 
+    /**
+     * Replaces the user's pinned stores with the requested set in two statements whatever the
+     * list size: one delete for pins no longer requested, one multi-row upsert for the rest.
+     * Unchanged pins keep their rows and IDs and are not rewritten.
+     */
     public List<PinnedStoreDto> updatePinnedStores(UUID userId, BulkPinnedStoreRequest request) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new BadRequestException("User not found"));
-
-        // First, delete all existing pinned stores for this user
-        List<PinnedStore> existingStores = pinnedStoreRepository.findByUserId(userId);
-        pinnedStoreRepository.deleteAll(existingStores);
-        pinnedStoreRepository.flush(); // Force the delete operation to complete before insert
+        List<PinnedStoreRequest> requested = request.getStores() != null ? request.getStores() : List.of();
 
         // Check for duplicate store IDs in the request
-        long uniqueStoreIds = request.getStores().stream()
-                .map(storeRequest -> storeRequest.getStoreApiId())
+        long uniqueStoreIds = requested.stream()
+                .map(PinnedStoreRequest::getStoreApiId)
                 .distinct()
                 .count();
 
-        if (uniqueStoreIds < request.getStores().size()) {
+        if (uniqueStoreIds < requested.size()) {
             throw new BadRequestException("Duplicate store IDs found in request");
         }
 
-        // Then create new pinned stores
-        List<PinnedStore> newPinnedStores = request.getStores().stream()
-                .map(storeRequest -> PinnedStore.builder()
-                        .user(user)
-                        .storeApiId(storeRequest.getStoreApiId())
-                        .storeName(storeRequest.getStoreName())
-                        .build())
-                .collect(Collectors.toList());
+        String[] storeApiIds = requested.stream().map(PinnedStoreRequest::getStoreApiId).toArray(String[]::new);
+        String[] storeNames = requested.stream().map(PinnedStoreRequest::getStoreName).toArray(String[]::new);
 
-        List<PinnedStore> saved = pinnedStoreRepository.saveAll(newPinnedStores);
-        return saved.stream()
-                .map(this::mapToDto)
-                .collect(Collectors.toList());
+        jdbcTemplate.update(DELETE_REMOVED_SQL, ps -> {
+            ps.setObject(1, userId);
+            ps.setArray(2, ps.getConnection().createArrayOf("text", storeApiIds));
+        });
+
+        if (storeApiIds.length == 0) {
+            return List.of();
+        }
+
+        return jdbcTemplate.query(UPSERT_SQL, ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("text", storeApiIds));
+            ps.setArray(2, ps.getConnection().createArrayOf("text", storeNames));
+            ps.setObject(3, userId);
+            ps.setObject(4, userId);
+        }, (rs, rowNum) -> PinnedStoreDto.builder()
+                .id(rs.getObject("id", UUID.class))
+                .userId(userId)
+                .storeApiId(rs.getString("store_api_id"))
+                .storeName(rs.getString("store_name"))
+                .build());
     }
 
     @Transactional(readOnly = true)
@@ -0,0 +1,36 @@
+package disscount.price.dao;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import disscount.price.domain.DetectedDiscount;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface DetectedDiscountRepository extends JpaRepository<DetectedDiscount, UUID> {
+
+    @Query("SELECT MAX(d.priceDate) FROM DetectedDiscount d")
+    Optional<LocalDate> findLatestPriceDate();
+
+    @Query("""
+            SELECT d FROM DetectedDiscount d
+            WHERE d.priceDate = :priceDate
+              AND (:chainCode IS NULL OR d.chainCode = :chainCode)
+              AND (:storeCode IS NULL OR d.storeCode = :storeCode)
+              AND (:category IS NULL OR d.category = :category)
+            """)
+    Page<DetectedDiscount> search(
+        @Param("priceDate") LocalDate priceDate,
+        @Param("chainCode") String chainCode,
+        @Param("storeCode") String storeCode,
+        @Param("category") String category,
+        Pageable pageable
+    );
+}
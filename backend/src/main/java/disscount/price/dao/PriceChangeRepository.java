@@ -0,0 +1,30 @@
+package disscount.price.dao;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import disscount.price.domain.PriceChange;
+import disscount.price.domain.PriceChangeType;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface PriceChangeRepository extends JpaRepository<PriceChange, UUID> {
+
+    @Query("SELECT pc FROM PriceChange pc WHERE pc.priceDate = :priceDate AND pc.changeType IN :types")
+    List<PriceChange> findByPriceDateAndTypes(
+        @Param("priceDate") LocalDate priceDate,
+        @Param("types") Collection<PriceChangeType> types
+    );
+
+    @Query("SELECT pc FROM PriceChange pc WHERE pc.priceDate = :priceDate AND pc.ean IN :eans")
+    List<PriceChange> findByPriceDateAndEans(
+        @Param("priceDate") LocalDate priceDate,
+        @Param("eans") Collection<String> eans
+    );
+}
@@ -0,0 +1,21 @@
+package disscount.price.dao;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import disscount.price.domain.PriceLevel;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface PriceLevelRepository extends JpaRepository<PriceLevel, UUID> {
+
+    @Query("SELECT MAX(pl.priceDate) FROM PriceLevel pl")
+    Optional<LocalDate> findLatestPriceDate();
+
+    List<PriceLevel> findByPriceDateOrderByPriceIndexAsc(LocalDate priceDate);
+}
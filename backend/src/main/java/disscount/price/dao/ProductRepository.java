@@ -0,0 +1,10 @@
+package disscount.price.dao;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import disscount.price.domain.Product;
+
+@Repository
+public interface ProductRepository extends JpaRepository<Product, String> {
+}
@@ -0,0 +1,31 @@
+package disscount.price.dao;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import disscount.price.domain.StorePrice;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface StorePriceRepository extends JpaRepository<StorePrice, UUID> {
+
+    @Query("SELECT MAX(sp.priceDate) FROM StorePrice sp")
+    Optional<LocalDate> findLatestPriceDate();
+
+    @Query("SELECT MAX(sp.priceDate) FROM StorePrice sp WHERE sp.priceDate < :priceDate")
+    Optional<LocalDate> findLatestPriceDateBefore(@Param("priceDate") LocalDate priceDate);
+
+    @Query("SELECT sp FROM StorePrice sp WHERE sp.priceDate = :priceDate AND sp.ean IN :eans AND sp.chainCode IN :chainCodes")
+    List<StorePrice> findByDateAndEansAndChains(
+        @Param("priceDate") LocalDate priceDate,
+        @Param("eans") Collection<String> eans,
+        @Param("chainCodes") Collection<String> chainCodes
+    );
+}
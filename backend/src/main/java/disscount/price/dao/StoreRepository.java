@@ -0,0 +1,21 @@
+package disscount.price.dao;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import disscount.price.domain.Store;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface StoreRepository extends JpaRepository<Store, UUID> {
+
+    List<Store> findByChainCodeIn(Collection<String> chainCodes);
+
+    @Query("SELECT s FROM Store s WHERE LOWER(s.city) IN :cities")
+    List<Store> findByCityIn(@Param("cities") Collection<String> lowerCaseCities);
+}
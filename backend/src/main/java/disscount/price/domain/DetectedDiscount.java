@@ -0,0 +1,75 @@
+package disscount.price.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * A genuine discount of one (store, EAN) on priceDate: the price is clearly below the
+ * store's own 30-day average and also below its 90-day average, so a price that was
+ * raised shortly before a "sale" does not qualify. Savings are measured against the
+ * 30-day average.
+ */
+@Entity
+@Table(name = "detected_discount",
+       indexes = {
+           @Index(name = "idx_detected_discount_chain", columnList = "price_date, chain_code, saving_percentage"),
+           @Index(name = "idx_detected_discount_category", columnList = "price_date, category, saving_percentage"),
+           @Index(name = "idx_detected_discount_store", columnList = "price_date, chain_code, store_code")
+       })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DetectedDiscount {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "price_date", nullable = false)
+    private LocalDate priceDate;
+
+    @Column(name = "chain_code", nullable = false)
+    private String chainCode;
+
+    @Column(name = "store_code", nullable = false)
+    private String storeCode;
+
+    @Column(name = "ean", nullable = false)
+    private String ean;
+
+    @Column(name = "product_name")
+    private String productName;
+
+    @Column(name = "category")
+    private String category;
+
+    @Column(name = "price", nullable = false, precision = 10, scale = 2)
+    private BigDecimal price;
+
+    // Average price over the 30 / 90 days before priceDate
+    @Column(name = "baseline_30", nullable = false, precision = 10, scale = 2)
+    private BigDecimal baseline30;
+
+    @Column(name = "baseline_90", nullable = false, precision = 10, scale = 2)
+    private BigDecimal baseline90;
+
+    // Lowest price over the 30 days before priceDate
+    @Column(name = "min_30", nullable = false, precision = 10, scale = 2)
+    private BigDecimal min30;
+
+    @Column(name = "saving_amount", nullable = false, precision = 10, scale = 2)
+    private BigDecimal savingAmount;
+
+    @Column(name = "saving_percentage", nullable = false, precision = 5, scale = 2)
+    private BigDecimal savingPercentage;
+
+    // Cheaper than at any point in the previous 30 days
+    @Column(name = "new_low", nullable = false)
+    private Boolean newLow;
+}
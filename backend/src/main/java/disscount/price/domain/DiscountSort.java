@@ -0,0 +1,8 @@
+package disscount.price.domain;
+
+public enum DiscountSort {
+    // Largest saving as a share of the 30-day baseline first
+    RELATIVE,
+    // Largest saving in euros first
+    ABSOLUTE
+}
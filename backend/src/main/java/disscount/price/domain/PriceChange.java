@@ -0,0 +1,61 @@
+package disscount.price.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * What changed for one (store, EAN) between priceDate and the previous ingested day.
+ * Unchanged prices produce no row, so consumers only ever touch the changed fraction.
+ */
+@Entity
+@Table(name = "price_change",
+       indexes = {
+           @Index(name = "idx_price_change_date_type", columnList = "price_date, change_type"),
+           @Index(name = "idx_price_change_date_ean", columnList = "price_date, ean")
+       })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PriceChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "price_date", nullable = false)
+    private LocalDate priceDate;
+
+    @Column(name = "previous_date", nullable = false)
+    private LocalDate previousDate;
+
+    @Column(name = "chain_code", nullable = false)
+    private String chainCode;
+
+    @Column(name = "store_code", nullable = false)
+    private String storeCode;
+
+    @Column(name = "ean", nullable = false)
+    private String ean;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type", nullable = false)
+    private PriceChangeType changeType;
+
+    // null for NEW
+    @Column(name = "old_price", precision = 10, scale = 2)
+    private BigDecimal oldPrice;
+
+    // null for REMOVED
+    @Column(name = "new_price", precision = 10, scale = 2)
+    private BigDecimal newPrice;
+
+    // newPrice - oldPrice; null for NEW and REMOVED
+    @Column(name = "delta", precision = 10, scale = 2)
+    private BigDecimal delta;
+}
@@ -0,0 +1,8 @@
+package disscount.price.domain;
+
+public enum PriceChangeType {
+    NEW,        // Store started selling the EAN
+    REMOVED,    // Store no longer lists the EAN
+    UP,
+    DOWN
+}
@@ -0,0 +1,50 @@
+package disscount.price.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Relative price level of a chain or a single store on one price day. 100 is the market
+ * average over the compared EANs; 95 means about 5 % cheaper on the same products.
+ */
+@Entity
+@Table(name = "price_level",
+       indexes = {
+           @Index(name = "idx_price_level_date_scope", columnList = "price_date, scope")
+       })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PriceLevel {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "price_date", nullable = false)
+    private LocalDate priceDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "scope", nullable = false)
+    private PriceLevelScope scope;
+
+    @Column(name = "chain_code", nullable = false)
+    private String chainCode;
+
+    // null for CHAIN rows
+    @Column(name = "store_code")
+    private String storeCode;
+
+    @Column(name = "price_index", nullable = false, precision = 8, scale = 4)
+    private BigDecimal priceIndex;
+
+    // How many reference EANs the index was computed over
+    @Column(name = "ean_count", nullable = false)
+    private Integer eanCount;
+}
@@ -0,0 +1,6 @@
+package disscount.price.domain;
+
+public enum PriceLevelScope {
+    CHAIN,
+    STORE
+}
@@ -0,0 +1,49 @@
+package disscount.price.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Rolling 7/30/90-day average and minimum of one EAN's daily price as of priceDate. The
+ * daily price is the average of the chains' own averages, as everywhere else; the daily
+ * minimum is the lowest store price. A window nobody priced the EAN in is null. The
+ * 30-day minimum is the reference for Omnibus-style "lowest price in the last 30 days"
+ * labels.
+ */
+@Entity
+@Table(name = "price_stats")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PriceStats {
+
+    @Id
+    @Column(name = "ean", nullable = false)
+    private String ean;
+
+    @Column(name = "price_date", nullable = false)
+    private LocalDate priceDate;
+
+    @Column(name = "average_7", precision = 10, scale = 2)
+    private BigDecimal average7;
+
+    @Column(name = "average_30", precision = 10, scale = 2)
+    private BigDecimal average30;
+
+    @Column(name = "average_90", precision = 10, scale = 2)
+    private BigDecimal average90;
+
+    @Column(name = "minimum_7", precision = 10, scale = 2)
+    private BigDecimal minimum7;
+
+    @Column(name = "minimum_30", precision = 10, scale = 2)
+    private BigDecimal minimum30;
+
+    @Column(name = "minimum_90", precision = 10, scale = 2)
+    private BigDecimal minimum90;
+}
@@ -0,0 +1,37 @@
+package disscount.price.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Product master data from the daily price archive, keyed by EAN. The first chain
+ * to list an EAN wins; later chains only add prices, never rename the product.
+ */
+@Entity
+@Table(name = "product")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Product {
+
+    @Id
+    @Column(name = "ean", nullable = false)
+    private String ean;
+
+    @Column(name = "name")
+    private String name;
+
+    @Column(name = "brand")
+    private String brand;
+
+    @Column(name = "category")
+    private String category;
+
+    @Column(name = "unit")
+    private String unit;
+
+    @Column(name = "quantity")
+    private String quantity;
+}
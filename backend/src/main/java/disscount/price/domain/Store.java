@@ -0,0 +1,43 @@
+package disscount.price.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.UUID;
+
+/**
+ * A physical store of a chain, as published in the daily price archive.
+ * chainCode matches PinnedStore.storeApiId and city matches PinnedPlace.placeApiId.
+ */
+@Entity
+@Table(name = "store",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"chain_code", "code"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Store {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "chain_code", nullable = false)
+    private String chainCode;
+
+    @Column(name = "code", nullable = false)
+    private String code;
+
+    @Column(name = "type")
+    private String type;
+
+    @Column(name = "address")
+    private String address;
+
+    @Column(name = "city")
+    private String city;
+
+    @Column(name = "zipcode")
+    private String zipcode;
+}
@@ -0,0 +1,52 @@
+package disscount.price.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * One row per (day, store, EAN). Stores are referenced by their natural key
+ * (chainCode, storeCode) rather than a FK so the daily ingest can bulk-upsert
+ * without resolving store IDs first.
+ */
+@Entity
+@Table(name = "store_price",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"price_date", "chain_code", "store_code", "ean"}),
+       indexes = {
+               @Index(name = "idx_store_price_date_ean", columnList = "price_date, ean"),
+               // Per-chain history windows (discount detection baselines)
+               @Index(name = "idx_store_price_chain_date", columnList = "chain_code, price_date")
+       })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StorePrice {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "price_date", nullable = false)
+    private LocalDate priceDate;
+
+    @Column(name = "chain_code", nullable = false)
+    private String chainCode;
+
+    @Column(name = "store_code", nullable = false)
+    private String storeCode;
+
+    @Column(name = "ean", nullable = false)
+    private String ean;
+
+    // What the shopper pays that day: the special (action) price when present, else the regular one.
+    @Column(name = "price", nullable = false, precision = 10, scale = 2)
+    private BigDecimal price;
+
+    @Column(name = "regular_price", precision = 10, scale = 2)
+    private BigDecimal regularPrice;
+}
@@ -0,0 +1,17 @@
+package disscount.price.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@Builder
+public class CurrentPriceDto {
+
+    private String chainCode;
+    private String storeCode;
+    private BigDecimal price;
+    private LocalDate priceDate;
+}
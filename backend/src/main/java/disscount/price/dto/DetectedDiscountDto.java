@@ -0,0 +1,26 @@
+package disscount.price.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@Builder
+public class DetectedDiscountDto {
+
+    private LocalDate priceDate;
+    private String chainCode;
+    private String storeCode;
+    private String ean;
+    private String productName;
+    private String category;
+    private BigDecimal price;
+    private BigDecimal baseline30;
+    private BigDecimal baseline90;
+    private BigDecimal min30;
+    private BigDecimal savingAmount;
+    private BigDecimal savingPercentage;
+    private boolean newLow;
+}
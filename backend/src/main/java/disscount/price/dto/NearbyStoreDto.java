@@ -0,0 +1,17 @@
+package disscount.price.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class NearbyStoreDto {
+
+    private String chainCode;
+    private String code;
+    private String address;
+    private String city;
+    private double lat;
+    private double lon;
+    private double distanceKm;
+}
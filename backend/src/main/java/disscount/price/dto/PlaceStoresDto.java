@@ -0,0 +1,18 @@
+package disscount.price.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class PlaceStoresDto {
+
+    private String placeApiId;
+    private String placeName;
+    // Centroid of the place's catalog stores; null when the catalog has no store there
+    private Double lat;
+    private Double lon;
+    private List<NearbyStoreDto> stores;
+}
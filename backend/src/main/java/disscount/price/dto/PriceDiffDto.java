@@ -0,0 +1,19 @@
+package disscount.price.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+public class PriceDiffDto {
+
+    private LocalDate priceDate;
+    // null when priceDate is the first ingested day (nothing to diff against)
+    private LocalDate previousDate;
+    private int newCount;
+    private int removedCount;
+    private int upCount;
+    private int downCount;
+}
@@ -0,0 +1,16 @@
+package disscount.price.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+public class PriceIngestDto {
+
+    private LocalDate priceDate;
+    private int chainCount;
+    private int storeCount;
+    private int priceCount;
+}
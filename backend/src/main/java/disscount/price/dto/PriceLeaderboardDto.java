@@ -0,0 +1,16 @@
+package disscount.price.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+public class PriceLeaderboardDto {
+
+    private LocalDate priceDate;
+    private List<PriceLevelDto> chains;
+    private List<PriceLevelDto> stores;
+}
@@ -0,0 +1,19 @@
+package disscount.price.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+public class PriceLevelDto {
+
+    private int rank;
+    private String chainCode;
+    private String storeCode;
+    private String address;
+    private String city;
+    private BigDecimal priceIndex;
+    private int eanCount;
+}
@@ -0,0 +1,21 @@
+package disscount.price.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@Builder
+public class PriceStatsDto {
+
+    private String ean;
+    private LocalDate priceDate;
+    private BigDecimal average7;
+    private BigDecimal average30;
+    private BigDecimal average90;
+    private BigDecimal minimum7;
+    private BigDecimal minimum30;
+    private BigDecimal minimum90;
+}
@@ -0,0 +1,18 @@
+package disscount.price.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ProductSearchResultDto {
+
+    private String ean;
+    private String name;
+    private String brand;
+    private String quantity;
+    private String unit;
+    // Chains that priced this EAN on the latest ingested day
+    private int chainCount;
+    private double score;
+}
@@ -0,0 +1,44 @@
+package disscount.price.rest;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import disscount.price.dto.PriceDiffDto;
+import disscount.price.dto.PriceIngestDto;
+import disscount.price.service.PriceDiffService;
+import disscount.price.service.PriceIngestService;
+import disscount.user.service.UserService;
+import disscount.util.SecurityUtils;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/admin/prices")
+@RequiredArgsConstructor
+@Tag(name = "Admin Prices", description = "Admin-only local price data management")
+public class AdminPriceController {
+
+    private final PriceIngestService priceIngestService;
+    private final PriceDiffService priceDiffService;
+    private final UserService userService;
+
+    @Operation(summary = "Ingest (or re-ingest) one day of the price archive (admin only)")
+    @PostMapping("/ingest")
+    public ResponseEntity<PriceIngestDto> ingest(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        userService.requireAdmin(SecurityUtils.getCurrentUserId());
+        return ResponseEntity.ok(priceIngestService.ingest(date));
+    }
+
+    @Operation(summary = "Recompute the price change events of one day against the previous day (admin only)")
+    @PostMapping("/diff")
+    public ResponseEntity<PriceDiffDto> diff(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        userService.requireAdmin(SecurityUtils.getCurrentUserId());
+        return ResponseEntity.ok(priceDiffService.diff(date));
+    }
+}
@@ -0,0 +1,80 @@
+package disscount.price.rest;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import disscount.price.domain.DiscountSort;
+import disscount.price.dto.CurrentPriceDto;
+import disscount.price.dto.DetectedDiscountDto;
+import disscount.price.dto.PriceStatsDto;
+import disscount.price.dto.PriceLeaderboardDto;
+import disscount.price.service.CurrentPriceIndexService;
+import disscount.price.service.DiscountDetectionService;
+import disscount.price.service.PriceLeaderboardService;
+import disscount.price.service.PriceStatsService;
+import disscount.util.ETagUtils;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/prices")
+@RequiredArgsConstructor
+@Tag(name = "Prices", description = "Current prices from local price data")
+public class PriceController {
+
+    private final CurrentPriceIndexService currentPriceIndexService;
+    private final PriceLeaderboardService priceLeaderboardService;
+    private final DiscountDetectionService discountDetectionService;
+    private final PriceStatsService priceStatsService;
+
+    @Operation(summary = "Current price of an EAN in every store, optionally limited to one chain")
+    @GetMapping("/current/{ean}")
+    public ResponseEntity<List<CurrentPriceDto>> getCurrentPrices(
+            @PathVariable String ean,
+            @RequestParam(required = false) String chainCode) {
+        return ResponseEntity.ok(currentPriceIndexService.getCurrentPrices(ean, chainCode));
+    }
+
+    @Operation(summary = "Rolling 7/30/90-day average and minimum price of an EAN")
+    @GetMapping("/stats/{ean}")
+    public ResponseEntity<PriceStatsDto> getPriceStats(@PathVariable String ean) {
+        return priceStatsService.getStats(ean)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @Operation(summary = "Chains and stores ranked by relative price level (100 = market average)")
+    @GetMapping("/leaderboard")
+    public ResponseEntity<PriceLeaderboardDto> getLeaderboard(
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        PriceLeaderboardService.Snapshot snapshot = priceLeaderboardService.getSnapshot();
+        if (ETagUtils.matchesAny(ifNoneMatch, snapshot.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(snapshot.etag())
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(snapshot.etag())
+                .cacheControl(CacheControl.noCache())
+                .body(snapshot.leaderboard());
+    }
+
+    @Operation(summary = "Genuine discounts of the newest price day, by chain, store or category, ranked by saving")
+    @GetMapping("/discounts")
+    public ResponseEntity<Page<DetectedDiscountDto>> getDiscounts(
+            @RequestParam(required = false) String chainCode,
+            @RequestParam(required = false) String storeCode,
+            @RequestParam(required = false) String category,
+            @RequestParam(defaultValue = "RELATIVE") DiscountSort sort,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(discountDetectionService.getDiscounts(chainCode, storeCode, category, sort, page, size));
+    }
+}
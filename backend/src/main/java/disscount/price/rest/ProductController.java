@@ -0,0 +1,29 @@
+package disscount.price.rest;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import disscount.price.dto.ProductSearchResultDto;
+import disscount.price.service.ProductSearchService;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/products")
+@RequiredArgsConstructor
+@Tag(name = "Products", description = "Product search over local price data")
+public class ProductController {
+
+    private final ProductSearchService productSearchService;
+
+    @Operation(summary = "Typeahead product search by name, brand or EAN (public)")
+    @GetMapping("/search")
+    public ResponseEntity<List<ProductSearchResultDto>> search(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(productSearchService.search(q, limit));
+    }
+}
@@ -0,0 +1,49 @@
+package disscount.price.rest;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import disscount.price.dto.NearbyStoreDto;
+import disscount.price.dto.PlaceStoresDto;
+import disscount.price.service.StoreCatalogService;
+import disscount.util.SecurityUtils;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/stores")
+@RequiredArgsConstructor
+@Tag(name = "Stores", description = "Store locations and nearest-store queries")
+public class StoreController {
+
+    private final StoreCatalogService storeCatalogService;
+
+    @Operation(summary = "k nearest stores to a coordinate")
+    @GetMapping("/nearest")
+    public ResponseEntity<List<NearbyStoreDto>> getNearestStores(
+            @RequestParam double lat,
+            @RequestParam double lon,
+            @RequestParam(defaultValue = "10") int k) {
+        return ResponseEntity.ok(storeCatalogService.nearest(lat, lon, k));
+    }
+
+    @Operation(summary = "k nearest stores around each of the current user's pinned places")
+    @GetMapping("/me/nearest")
+    public ResponseEntity<List<PlaceStoresDto>> getNearestStoresPerPinnedPlace(
+            @RequestParam(defaultValue = "10") int k) {
+        UUID userId = SecurityUtils.getCurrentUserId();
+        return ResponseEntity.ok(storeCatalogService.nearestPerPinnedPlace(userId, k));
+    }
+
+    @Operation(summary = "Stores within a radius (km) of each of the current user's pinned places")
+    @GetMapping("/me/within")
+    public ResponseEntity<List<PlaceStoresDto>> getStoresWithinRadiusPerPinnedPlace(
+            @RequestParam(defaultValue = "5") double radiusKm) {
+        UUID userId = SecurityUtils.getCurrentUserId();
+        return ResponseEntity.ok(storeCatalogService.withinPerPinnedPlace(userId, radiusKm));
+    }
+}
@@ -0,0 +1,128 @@
+package disscount.price.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import disscount.price.dao.StorePriceRepository;
+import disscount.price.dto.CurrentPriceDto;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Owns the memory-mapped current-price snapshot. On startup the last snapshot file is
+ * mapped as-is (no database reads); after each ingest of a day at least as recent as
+ * the mapped one, a new file is streamed from store_price and swapped in atomically.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CurrentPriceIndexService {
+
+    private static final int FETCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StorePriceRepository storePriceRepository;
+
+    @Value("${price.index.file}")
+    private String indexFile;
+
+    private volatile MappedPriceIndex index;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void openOnStartup() {
+        Path file = Path.of(indexFile);
+        if (Files.exists(file)) {
+            try {
+                index = MappedPriceIndex.open(file);
+                log.info("Mapped current price index for {}", index.getPriceDate());
+                return;
+            } catch (IOException e) {
+                log.warn("Could not map price index {}, rebuilding: {}", file, e.getMessage());
+            }
+        }
+
+        storePriceRepository.findLatestPriceDate().ifPresent(this::rebuild);
+    }
+
+    @EventListener
+    public void onPriceIngested(PriceIngestedEvent event) {
+        MappedPriceIndex current = index;
+        // Replaying an older day must not replace the current snapshot
+        if (current != null && event.priceDate().isBefore(current.getPriceDate())) {
+            return;
+        }
+        rebuild(event.priceDate());
+    }
+
+    public Optional<MappedPriceIndex> current() {
+        return Optional.ofNullable(index);
+    }
+
+    public List<CurrentPriceDto> getCurrentPrices(String ean, String chainCode) {
+        MappedPriceIndex current = index;
+        if (current == null) {
+            return List.of();
+        }
+
+        List<CurrentPriceDto> prices = new ArrayList<>();
+        current.forEachPrice(ean, (priceChain, storeCode, cents) -> {
+            if (chainCode == null || chainCode.equals(priceChain)) {
+                prices.add(CurrentPriceDto.builder()
+                        .chainCode(priceChain)
+                        .storeCode(storeCode)
+                        .price(BigDecimal.valueOf(cents, 2))
+                        .priceDate(current.getPriceDate())
+                        .build());
+            }
+        });
+        return prices;
+    }
+
+    private void rebuild(LocalDate priceDate) {
+        List<String[]> stores = jdbcTemplate.query(
+                "SELECT DISTINCT chain_code, store_code FROM store_price WHERE price_date = ?",
+                (rs, rowNum) -> new String[]{rs.getString(1), rs.getString(2)},
+                priceDate);
+        Integer eanCount = jdbcTemplate.queryForObject(
+                "SELECT COUNT(DISTINCT ean) FROM store_price WHERE price_date = ?", Integer.class, priceDate);
+
+        Path target = Path.of(indexFile).toAbsolutePath();
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+
+        // Postgres only streams with a fetch size inside a transaction
+        JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getDataSource());
+        streaming.setFetchSize(FETCH_SIZE);
+
+        try {
+            Files.createDirectories(target.getParent());
+            try (MappedPriceIndex.Writer writer = MappedPriceIndex.writer(temp, priceDate, stores, eanCount != null ? eanCount : 0)) {
+                transactionTemplate.executeWithoutResult(status -> streaming.query(
+                        "SELECT ean, chain_code, store_code, price FROM store_price WHERE price_date = ? ORDER BY ean",
+                        (RowCallbackHandler) rs -> writer.add(rs.getString(1), rs.getString(2), rs.getString(3), rs.getBigDecimal(4)),
+                        priceDate));
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            index = MappedPriceIndex.open(target);
+            log.info("Current price index rebuilt for {}", priceDate);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write price index " + target, e);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package disscount.price.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import disscount.price.dao.DetectedDiscountRepository;
+import disscount.price.domain.DetectedDiscount;
+import disscount.price.domain.DiscountSort;
+import disscount.price.dto.DetectedDiscountDto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides what counts as a deal. After each ingest every (store, EAN) priced that day is
+ * compared with the same store's own rolling baselines: the average over the previous 30
+ * and 90 days. A price is a genuine discount when there is enough recent history, it is
+ * at least {@code minSavingPercentage} below the 30-day average, and it is also below the
+ * 90-day average. The last condition rejects "sales" that only undo a recent increase.
+ * <p>
+ * Each chain is detected by one INSERT ... SELECT in its own transaction. Chains run in
+ * parallel on a small pool sized to leave database connections for request traffic. A
+ * failing chain is logged and does not affect the others. Re-running a day replaces its
+ * rows.
+ */
+@Slf4j
+@Service
+public class DiscountDetectionService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private static final String CHAINS_SQL = "SELECT DISTINCT chain_code FROM store";
+
+    private static final String DELETE_CHAIN_SQL =
+            "DELETE FROM detected_discount WHERE price_date = :priceDate AND chain_code = :chainCode";
+
+    private static final String DELETE_EXPIRED_SQL = "DELETE FROM detected_discount WHERE price_date < ?";
+
+    private static final String DETECT_CHAIN_SQL = """
+            WITH today AS (
+                SELECT store_code, ean, price
+                FROM store_price
+                WHERE price_date = :priceDate AND chain_code = :chainCode AND price > 0
+            ), history AS (
+                SELECT store_code, ean,
+                       AVG(price) FILTER (WHERE price_date >= :from30) AS avg_30,
+                       MIN(price) FILTER (WHERE price_date >= :from30) AS min_30,
+                       COUNT(*) FILTER (WHERE price_date >= :from30) AS days_30,
+                       AVG(price) AS avg_90
+                FROM store_price
+                WHERE chain_code = :chainCode AND price_date >= :from90 AND price_date < :priceDate AND price > 0
+                GROUP BY store_code, ean
+            )
+            INSERT INTO detected_discount (id, price_date, chain_code, store_code, ean, product_name, category,
+                                           price, baseline_30, baseline_90, min_30,
+                                           saving_amount, saving_percentage, new_low)
+            SELECT gen_random_uuid(), :priceDate, :chainCode, t.store_code, t.ean, p.name, p.category,
+                   t.price, ROUND(h.avg_30, 2), ROUND(h.avg_90, 2), h.min_30,
+                   ROUND(h.avg_30 - t.price, 2), ROUND((h.avg_30 - t.price) * 100 / h.avg_30, 2),
+                   t.price < h.min_30
+            FROM today t
+            JOIN history h ON h.store_code = t.store_code AND h.ean = t.ean
+            LEFT JOIN product p ON p.ean = t.ean
+            WHERE h.days_30 >= :minHistoryDays
+              AND t.price < h.avg_90
+              AND (h.avg_30 - t.price) * 100 >= h.avg_30 * :minSavingPercentage
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final DetectedDiscountRepository detectedDiscountRepository;
+    private final BigDecimal minSavingPercentage;
+    private final int minHistoryDays;
+    private final int retentionDays;
+    private final ExecutorService workers;
+
+    public DiscountDetectionService(
+            JdbcTemplate jdbcTemplate,
+            NamedParameterJdbcTemplate namedJdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            DetectedDiscountRepository detectedDiscountRepository,
+            @Value("${discount.detection.min-saving-percentage}") BigDecimal minSavingPercentage,
+            @Value("${discount.detection.min-history-days}") int minHistoryDays,
+            @Value("${discount.detection.retention-days}") int retentionDays,
+            @Value("${discount.detection.parallelism}") int parallelism) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.detectedDiscountRepository = detectedDiscountRepository;
+        this.minSavingPercentage = minSavingPercentage;
+        this.minHistoryDays = minHistoryDays;
+        this.retentionDays = retentionDays;
+        this.workers = Executors.newFixedThreadPool(parallelism,
+                Thread.ofPlatform().name("discount-detection-", 0).factory());
+    }
+
+    @EventListener
+    public void onPriceIngested(PriceIngestedEvent event) {
+        detect(event.priceDate());
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        workers.shutdown();
+        workers.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Detects the discounts of priceDate for every chain and waits for all chains to finish.
+     * @return number of discounts found
+     */
+    public int detect(LocalDate priceDate) {
+        List<String> chainCodes = jdbcTemplate.queryForList(CHAINS_SQL, String.class);
+
+        List<Future<Integer>> results = new ArrayList<>();
+        for (String chainCode : chainCodes) {
+            results.add(workers.submit(() -> detectChain(priceDate, chainCode)));
+        }
+
+        int total = 0;
+        for (int i = 0; i < results.size(); i++) {
+            try {
+                total += results.get(i).get();
+            } catch (ExecutionException e) {
+                log.error("Discount detection for {} on {} failed", chainCodes.get(i), priceDate, e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        int expired = jdbcTemplate.update(DELETE_EXPIRED_SQL, priceDate.minusDays(retentionDays));
+        log.info("Discount detection for {}: {} discounts across {} chains, {} expired rows removed",
+                priceDate, total, chainCodes.size(), expired);
+        return total;
+    }
+
+    private int detectChain(LocalDate priceDate, String chainCode) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("priceDate", priceDate)
+                .addValue("chainCode", chainCode)
+                .addValue("from30", priceDate.minusDays(30))
+                .addValue("from90", priceDate.minusDays(90))
+                .addValue("minHistoryDays", minHistoryDays)
+                .addValue("minSavingPercentage", minSavingPercentage);
+
+        Integer inserted = transactionTemplate.execute(status -> {
+            namedJdbcTemplate.update(DELETE_CHAIN_SQL, params);
+            return namedJdbcTemplate.update(DETECT_CHAIN_SQL, params);
+        });
+        return inserted != null ? inserted : 0;
+    }
+
+    /**
+     * Discounts of the newest detected day, optionally narrowed to a chain, a store of that
+     * chain or a category, ranked by relative or absolute saving.
+     */
+    @Transactional(readOnly = true)
+    public Page<DetectedDiscountDto> getDiscounts(String chainCode, String storeCode, String category,
+                                                  DiscountSort sort, int page, int size) {
+        LocalDate priceDate = detectedDiscountRepository.findLatestPriceDate().orElse(null);
+        PageRequest pageRequest = PageRequest.of(Math.max(page, 0), Math.max(1, Math.min(size, MAX_PAGE_SIZE)), sortOf(sort));
+        if (priceDate == null) {
+            return Page.empty(pageRequest);
+        }
+
+        return detectedDiscountRepository.search(priceDate, chainCode, storeCode, category, pageRequest)
+                .map(this::mapToDto);
+    }
+
+    private static Sort sortOf(DiscountSort sort) {
+        Sort primary = switch (sort) {
+            case RELATIVE -> Sort.by(Sort.Order.desc("savingPercentage"), Sort.Order.desc("savingAmount"));
+            case ABSOLUTE -> Sort.by(Sort.Order.desc("savingAmount"), Sort.Order.desc("savingPercentage"));
+        };
+        // id keeps page boundaries stable between equal savings
+        return primary.and(Sort.by("id"));
+    }
+
+    private DetectedDiscountDto mapToDto(DetectedDiscount discount) {
+        return DetectedDiscountDto.builder()
+                .priceDate(discount.getPriceDate())
+                .chainCode(discount.getChainCode())
+                .storeCode(discount.getStoreCode())
+                .ean(discount.getEan())
+                .productName(discount.getProductName())
+                .category(discount.getCategory())
+                .price(discount.getPrice())
+                .baseline30(discount.getBaseline30())
+                .baseline90(discount.getBaseline90())
+                .min30(discount.getMin30())
+                .savingAmount(discount.getSavingAmount())
+                .savingPercentage(discount.getSavingPercentage())
+                .newLow(discount.getNewLow())
+                .build();
+    }
+}
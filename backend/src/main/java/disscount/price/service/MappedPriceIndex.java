@@ -0,0 +1,367 @@
+package disscount.price.service;
+
+import disscount.util.StoreUtils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+
+/**
+ * Read-only, memory-mapped "current price of EAN X in store Y" lookup for one price day.
+ * Nothing but the small store table lives on the heap; EAN slots and prices stay in the
+ * page cache, so a restarted node serves prices as soon as the file is mapped.
+ * <p>
+ * File layout (big-endian):
+ * <pre>
+ * header   magic, version, priceDate (epoch day), storeCount, slotCount, entryCount, storeTableBytes
+ * stores   storeCount x (u16 len + UTF-8 chainCode, u16 len + UTF-8 storeCode), sorted by chain then store
+ * slots    slotCount x (long eanKey, int firstEntry, int entryCount), open addressing, linear probing
+ * entries  entryCount x (int storeIndex, int priceCents), grouped by EAN and sorted by storeIndex
+ * </pre>
+ * EANs are encoded as (digits << 4 | length) so leading zeros survive and 0 can mark empty slots.
+ */
+public final class MappedPriceIndex {
+
+    private static final int MAGIC = 0x44504958; // "DPIX"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 36;
+    private static final int SLOT_BYTES = 16;
+    private static final int ENTRY_BYTES = 8;
+
+    private final LocalDate priceDate;
+    private final String[] chainCodes;
+    private final String[] storeCodes;
+    private final Map<String, Integer> storeIndex;
+    // chainCode -> [firstStore, endStore) in the sorted store table
+    private final Map<String, int[]> chainRanges;
+    private final ByteBuffer slots;
+    private final ByteBuffer entries;
+    private final int slotMask;
+
+    private MappedPriceIndex(LocalDate priceDate, String[] chainCodes, String[] storeCodes,
+                             ByteBuffer slots, ByteBuffer entries, int slotCount) {
+        this.priceDate = priceDate;
+        this.chainCodes = chainCodes;
+        this.storeCodes = storeCodes;
+        this.slots = slots;
+        this.entries = entries;
+        this.slotMask = slotCount - 1;
+        this.storeIndex = new HashMap<>(chainCodes.length * 2);
+        this.chainRanges = new HashMap<>();
+
+        for (int i = 0; i < chainCodes.length; i++) {
+            storeIndex.put(StoreUtils.key(chainCodes[i], storeCodes[i]), i);
+            int index = i;
+            chainRanges.compute(chainCodes[i], (chain, range) -> range == null
+                    ? new int[]{index, index + 1}
+                    : new int[]{range[0], index + 1});
+        }
+    }
+
+    public static MappedPriceIndex open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("Not a price index file (or an unsupported version): " + file);
+            }
+
+            LocalDate priceDate = LocalDate.ofEpochDay(buffer.getLong(8));
+            int storeCount = buffer.getInt(16);
+            int slotCount = buffer.getInt(20);
+            int entryCount = buffer.getInt(24);
+            int storeTableBytes = buffer.getInt(28);
+
+            String[] chainCodes = new String[storeCount];
+            String[] storeCodes = new String[storeCount];
+            ByteBuffer storeTable = buffer.slice(HEADER_BYTES, storeTableBytes);
+            for (int i = 0; i < storeCount; i++) {
+                chainCodes[i] = readString(storeTable);
+                storeCodes[i] = readString(storeTable);
+            }
+
+            int slotsOffset = HEADER_BYTES + storeTableBytes;
+            int entriesOffset = slotsOffset + slotCount * SLOT_BYTES;
+            return new MappedPriceIndex(
+                    priceDate,
+                    chainCodes,
+                    storeCodes,
+                    buffer.slice(slotsOffset, slotCount * SLOT_BYTES),
+                    buffer.slice(entriesOffset, entryCount * ENTRY_BYTES),
+                    slotCount);
+        }
+    }
+
+    public static Writer writer(Path file, LocalDate priceDate, List<String[]> stores, int eanCount) throws IOException {
+        return new Writer(file, priceDate, stores, eanCount);
+    }
+
+    public LocalDate getPriceDate() {
+        return priceDate;
+    }
+
+    /** Price in cents of the EAN in one store, or empty if that store does not sell it. */
+    public OptionalInt priceCents(String ean, String chainCode, String storeCode) {
+        Integer store = storeIndex.get(StoreUtils.key(chainCode, storeCode));
+        int slot = findSlot(ean);
+        if (store == null || slot < 0) {
+            return OptionalInt.empty();
+        }
+
+        int low = slots.getInt(slot * SLOT_BYTES + 8);
+        int high = low + slots.getInt(slot * SLOT_BYTES + 12) - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midStore = entries.getInt(mid * ENTRY_BYTES);
+            if (midStore < store) {
+                low = mid + 1;
+            } else if (midStore > store) {
+                high = mid - 1;
+            } else {
+                return OptionalInt.of(entries.getInt(mid * ENTRY_BYTES + 4));
+            }
+        }
+        return OptionalInt.empty();
+    }
+
+    /** Cheapest price in cents of the EAN across all stores of a chain. */
+    public OptionalInt minChainPriceCents(String ean, String chainCode) {
+        int[] range = chainRanges.get(chainCode);
+        int slot = findSlot(ean);
+        if (range == null || slot < 0) {
+            return OptionalInt.empty();
+        }
+
+        int first = slots.getInt(slot * SLOT_BYTES + 8);
+        int end = first + slots.getInt(slot * SLOT_BYTES + 12);
+        int min = Integer.MAX_VALUE;
+        for (int i = first; i < end; i++) {
+            int store = entries.getInt(i * ENTRY_BYTES);
+            if (store >= range[1]) break;
+            if (store >= range[0]) {
+                min = Math.min(min, entries.getInt(i * ENTRY_BYTES + 4));
+            }
+        }
+        return min == Integer.MAX_VALUE ? OptionalInt.empty() : OptionalInt.of(min);
+    }
+
+    /** Visit every store price of the EAN, in store table order. */
+    public void forEachPrice(String ean, PriceVisitor visitor) {
+        int slot = findSlot(ean);
+        if (slot < 0) return;
+
+        int first = slots.getInt(slot * SLOT_BYTES + 8);
+        int end = first + slots.getInt(slot * SLOT_BYTES + 12);
+        for (int i = first; i < end; i++) {
+            int store = entries.getInt(i * ENTRY_BYTES);
+            visitor.visit(chainCodes[store], storeCodes[store], entries.getInt(i * ENTRY_BYTES + 4));
+        }
+    }
+
+    private int findSlot(String ean) {
+        long key = encodeEan(ean);
+        if (key == 0) return -1;
+
+        int slot = (int) mix(key) & slotMask;
+        while (true) {
+            long candidate = slots.getLong(slot * SLOT_BYTES);
+            if (candidate == key) return slot;
+            if (candidate == 0) return -1;
+            slot = (slot + 1) & slotMask;
+        }
+    }
+
+    /** 0 for anything that is not an 8-14 digit EAN. */
+    static long encodeEan(String ean) {
+        if (ean == null || ean.length() < 8 || ean.length() > 14) return 0;
+
+        long digits = 0;
+        for (int i = 0; i < ean.length(); i++) {
+            char c = ean.charAt(i);
+            if (c < '0' || c > '9') return 0;
+            digits = digits * 10 + (c - '0');
+        }
+        return digits << 4 | ean.length();
+    }
+
+    // murmur3 fmix64
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @FunctionalInterface
+    public interface PriceVisitor {
+        void visit(String chainCode, String storeCode, int priceCents);
+    }
+
+    /**
+     * Streams rows grouped by EAN into a new index file. Entries are written straight to
+     * disk; only the slot table (a few MB) is held in memory until close().
+     */
+    public static final class Writer implements Closeable {
+
+        private final FileChannel channel;
+        private final LocalDate priceDate;
+        private final byte[] storeTable;
+        private final int storeCount;
+        private final Map<String, Integer> storeIndex = new HashMap<>();
+        private final long[] slotKeys;
+        private final int[] slotFirst;
+        private final int[] slotCounts;
+        private final int slotMask;
+        private final long entriesOffset;
+        private final ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+
+        private final List<int[]> pending = new ArrayList<>();
+        private String pendingEan;
+        private int entryCount;
+        private int eanCount;
+
+        private Writer(Path file, LocalDate priceDate, List<String[]> stores, int eanCount) throws IOException {
+            this.priceDate = priceDate;
+
+            List<String[]> sorted = new ArrayList<>(stores);
+            sorted.sort(Comparator.<String[], String>comparing(store -> store[0]).thenComparing(store -> store[1]));
+            this.storeCount = sorted.size();
+
+            ByteBuffer table = ByteBuffer.allocate(sorted.size() * 4 + sorted.stream()
+                    .mapToInt(store -> utf8(store[0]).length + utf8(store[1]).length)
+                    .sum());
+            for (int i = 0; i < sorted.size(); i++) {
+                String[] store = sorted.get(i);
+                storeIndex.put(StoreUtils.key(store[0], store[1]), i);
+                writeString(table, store[0]);
+                writeString(table, store[1]);
+            }
+            this.storeTable = table.array();
+
+            // Load factor <= 0.5 keeps probe chains short
+            int slotCount = Integer.highestOneBit(Math.max(2, eanCount * 2 - 1)) << 1;
+            this.slotKeys = new long[slotCount];
+            this.slotFirst = new int[slotCount];
+            this.slotCounts = new int[slotCount];
+            this.slotMask = slotCount - 1;
+            this.entriesOffset = HEADER_BYTES + storeTable.length + (long) slotCount * SLOT_BYTES;
+
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            channel.position(entriesOffset);
+        }
+
+        /** Rows must arrive grouped by EAN; order within a group does not matter. */
+        public void add(String ean, String chainCode, String storeCode, BigDecimal price) {
+            Integer store = storeIndex.get(StoreUtils.key(chainCode, storeCode));
+            if (store == null || encodeEan(ean) == 0) return;
+
+            if (!ean.equals(pendingEan)) {
+                flushPending();
+                pendingEan = ean;
+            }
+            pending.add(new int[]{store, price.movePointRight(2).intValue()});
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flushPending();
+                drain();
+
+                ByteBuffer head = ByteBuffer.allocate(HEADER_BYTES + storeTable.length + slotKeys.length * SLOT_BYTES);
+                head.putInt(MAGIC)
+                        .putInt(VERSION)
+                        .putLong(priceDate.toEpochDay())
+                        .putInt(storeCount)
+                        .putInt(slotKeys.length)
+                        .putInt(entryCount)
+                        .putInt(storeTable.length)
+                        .putInt(0);
+                head.put(storeTable);
+                for (int slot = 0; slot < slotKeys.length; slot++) {
+                    head.putLong(slotKeys[slot]).putInt(slotFirst[slot]).putInt(slotCounts[slot]);
+                }
+                head.flip();
+
+                long position = 0;
+                while (head.hasRemaining()) {
+                    position += channel.write(head, position);
+                }
+                channel.force(true);
+            } finally {
+                channel.close();
+            }
+        }
+
+        private void flushPending() {
+            if (pendingEan == null || pending.isEmpty()) return;
+
+            if (++eanCount > slotMask) {
+                throw new IllegalStateException("Price index sized for fewer EANs than were written");
+            }
+
+            long key = encodeEan(pendingEan);
+            int slot = (int) mix(key) & slotMask;
+            while (slotKeys[slot] != 0) {
+                slot = (slot + 1) & slotMask;
+            }
+            slotKeys[slot] = key;
+            slotFirst[slot] = entryCount;
+            slotCounts[slot] = pending.size();
+
+            pending.sort(Comparator.comparingInt(entry -> entry[0]));
+            for (int[] entry : pending) {
+                if (buffer.remaining() < ENTRY_BYTES) drain();
+                buffer.putInt(entry[0]).putInt(entry[1]);
+                entryCount++;
+            }
+            pending.clear();
+        }
+
+        private void drain() {
+            buffer.flip();
+            try {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            buffer.clear();
+        }
+
+        private static byte[] utf8(String value) {
+            return value.getBytes(StandardCharsets.UTF_8);
+        }
+
+        private static void writeString(ByteBuffer buffer, String value) {
+            byte[] bytes = utf8(value);
+            buffer.putShort((short) bytes.length);
+            buffer.put(bytes);
+        }
+    }
+}
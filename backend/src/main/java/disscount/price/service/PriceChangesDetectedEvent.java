@@ -0,0 +1,10 @@
+package disscount.price.service;
+
+import java.time.LocalDate;
+
+/**
+ * Published by PriceDiffService once price_change holds every change between
+ * previousDate and priceDate. Consumers read those rows instead of full snapshots.
+ */
+public record PriceChangesDetectedEvent(LocalDate priceDate, LocalDate previousDate, int changeCount) {
+}
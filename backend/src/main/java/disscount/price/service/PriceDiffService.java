@@ -0,0 +1,182 @@
+package disscount.price.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import disscount.price.dao.StorePriceRepository;
+import disscount.price.domain.PriceChangeType;
+import disscount.price.dto.PriceDiffDto;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Turns two consecutive price days into change events. Both snapshots are streamed from
+ * server-side cursors sorted by (chain, store, EAN) and merge-joined in a single pass,
+ * so memory stays flat regardless of day size. Re-running a day replaces its events,
+ * which makes any past day replayable.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PriceDiffService {
+
+    private static final int FETCH_SIZE = 10_000;
+    private static final int BATCH_SIZE = 1000;
+
+    // COLLATE "C" makes the database order match String.compareTo
+    private static final String SNAPSHOT_SQL = """
+            SELECT chain_code, store_code, ean, price FROM store_price
+            WHERE price_date = ?
+            ORDER BY chain_code COLLATE "C", store_code COLLATE "C", ean COLLATE "C"
+            """;
+
+    private static final String DELETE_SQL = "DELETE FROM price_change WHERE price_date = ?";
+
+    private static final String INSERT_SQL = """
+            INSERT INTO price_change (id, price_date, previous_date, chain_code, store_code, ean,
+                                      change_type, old_price, new_price, delta)
+            VALUES (gen_random_uuid(), ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final Comparator<Row> ROW_ORDER = Comparator
+            .comparing(Row::chainCode)
+            .thenComparing(Row::storeCode)
+            .thenComparing(Row::ean);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StorePriceRepository storePriceRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @EventListener
+    public void onPriceIngested(PriceIngestedEvent event) {
+        diff(event.priceDate());
+    }
+
+    public PriceDiffDto diff(LocalDate priceDate) {
+        LocalDate previousDate = storePriceRepository.findLatestPriceDateBefore(priceDate).orElse(null);
+        if (previousDate == null) {
+            log.info("No price day before {}, nothing to diff", priceDate);
+            return PriceDiffDto.builder().priceDate(priceDate).build();
+        }
+
+        Map<PriceChangeType, Integer> counts = transactionTemplate.execute(status -> jdbcTemplate.execute(
+                (ConnectionCallback<Map<PriceChangeType, Integer>>) connection -> mergeJoin(connection, previousDate, priceDate)));
+
+        int changeCount = counts.values().stream().mapToInt(Integer::intValue).sum();
+        log.info("Price diff {} -> {}: {}", previousDate, priceDate, counts);
+        eventPublisher.publishEvent(new PriceChangesDetectedEvent(priceDate, previousDate, changeCount));
+
+        return PriceDiffDto.builder()
+                .priceDate(priceDate)
+                .previousDate(previousDate)
+                .newCount(counts.get(PriceChangeType.NEW))
+                .removedCount(counts.get(PriceChangeType.REMOVED))
+                .upCount(counts.get(PriceChangeType.UP))
+                .downCount(counts.get(PriceChangeType.DOWN))
+                .build();
+    }
+
+    private Map<PriceChangeType, Integer> mergeJoin(Connection connection, LocalDate previousDate, LocalDate priceDate)
+            throws SQLException {
+        Map<PriceChangeType, Integer> counts = new EnumMap<>(PriceChangeType.class);
+        for (PriceChangeType type : PriceChangeType.values()) {
+            counts.put(type, 0);
+        }
+
+        try (PreparedStatement delete = connection.prepareStatement(DELETE_SQL);
+             PreparedStatement previous = connection.prepareStatement(SNAPSHOT_SQL);
+             PreparedStatement current = connection.prepareStatement(SNAPSHOT_SQL);
+             PreparedStatement insert = connection.prepareStatement(INSERT_SQL)) {
+
+            delete.setObject(1, priceDate);
+            delete.executeUpdate();
+
+            previous.setFetchSize(FETCH_SIZE);
+            previous.setObject(1, previousDate);
+            current.setFetchSize(FETCH_SIZE);
+            current.setObject(1, priceDate);
+
+            try (ResultSet before = previous.executeQuery(); ResultSet after = current.executeQuery()) {
+                Row old = next(before);
+                Row now = next(after);
+                int pending = 0;
+
+                while (old != null || now != null) {
+                    int order = old == null ? 1 : now == null ? -1 : ROW_ORDER.compare(old, now);
+                    PriceChangeType type = null;
+
+                    if (order < 0) {
+                        type = PriceChangeType.REMOVED;
+                        addInsert(insert, priceDate, previousDate, old, type, old.price(), null);
+                        old = next(before);
+                    } else if (order > 0) {
+                        type = PriceChangeType.NEW;
+                        addInsert(insert, priceDate, previousDate, now, type, null, now.price());
+                        now = next(after);
+                    } else {
+                        int direction = now.price().compareTo(old.price());
+                        if (direction != 0) {
+                            type = direction > 0 ? PriceChangeType.UP : PriceChangeType.DOWN;
+                            addInsert(insert, priceDate, previousDate, now, type, old.price(), now.price());
+                        }
+                        old = next(before);
+                        now = next(after);
+                    }
+
+                    if (type != null) {
+                        counts.merge(type, 1, Integer::sum);
+                        if (++pending == BATCH_SIZE) {
+                            insert.executeBatch();
+                            pending = 0;
+                        }
+                    }
+                }
+
+                if (pending > 0) {
+                    insert.executeBatch();
+                }
+            }
+        }
+
+        return counts;
+    }
+
+    private void addInsert(PreparedStatement insert, LocalDate priceDate, LocalDate previousDate, Row row,
+                           PriceChangeType type, BigDecimal oldPrice, BigDecimal newPrice) throws SQLException {
+        insert.setObject(1, priceDate);
+        insert.setObject(2, previousDate);
+        insert.setString(3, row.chainCode());
+        insert.setString(4, row.storeCode());
+        insert.setString(5, row.ean());
+        insert.setString(6, type.name());
+        insert.setBigDecimal(7, oldPrice);
+        insert.setBigDecimal(8, newPrice);
+        insert.setBigDecimal(9, oldPrice != null && newPrice != null ? newPrice.subtract(oldPrice) : null);
+        insert.addBatch();
+    }
+
+    private Row next(ResultSet resultSet) throws SQLException {
+        if (!resultSet.next()) {
+            return null;
+        }
+        return new Row(resultSet.getString(1), resultSet.getString(2), resultSet.getString(3), resultSet.getBigDecimal(4));
+    }
+
+    private record Row(String chainCode, String storeCode, String ean, BigDecimal price) {
+    }
+}
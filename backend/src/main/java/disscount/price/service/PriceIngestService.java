@@ -0,0 +1,190 @@
+package disscount.price.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import disscount.exceptions.BadRequestException;
+import disscount.price.dto.PriceIngestDto;
+import disscount.util.CsvUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Loads one day of the Cijene open-data archive into the local price tables.
+ * Expected layout (the unpacked daily archive): {ingestDir}/{yyyy-MM-dd}/{chain}/stores.csv,
+ * products.csv and prices.csv. Each chain commits in its own transaction so a broken
+ * chain file never rolls back the rest of the day.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PriceIngestService {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final Pattern EAN_PATTERN = Pattern.compile("\\d{8,14}");
+
+    private static final String UPSERT_STORE = """
+            INSERT INTO store (id, chain_code, code, type, address, city, zipcode)
+            VALUES (gen_random_uuid(), ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (chain_code, code) DO UPDATE
+            SET type = EXCLUDED.type, address = EXCLUDED.address, city = EXCLUDED.city, zipcode = EXCLUDED.zipcode
+            """;
+
+    private static final String UPSERT_PRODUCT = """
+            INSERT INTO product (ean, name, brand, category, unit, quantity)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON CONFLICT (ean) DO NOTHING
+            """;
+
+    private static final String UPSERT_PRICE = """
+            INSERT INTO store_price (id, price_date, chain_code, store_code, ean, price, regular_price)
+            VALUES (gen_random_uuid(), ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (price_date, chain_code, store_code, ean) DO UPDATE
+            SET price = EXCLUDED.price, regular_price = EXCLUDED.regular_price
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${price.ingest.dir}")
+    private String ingestDir;
+
+    @Scheduled(cron = "${price.ingest.cron}")
+    public void ingestToday() {
+        try {
+            ingest(LocalDate.now());
+        } catch (BadRequestException e) {
+            log.warn("Scheduled price ingest skipped: {}", e.getMessage());
+        }
+    }
+
+    public PriceIngestDto ingest(LocalDate priceDate) {
+        Path dayDir = Path.of(ingestDir, priceDate.toString());
+        if (!Files.isDirectory(dayDir)) {
+            throw new BadRequestException("No price archive found for " + priceDate);
+        }
+
+        List<Path> chainDirs;
+        try (Stream<Path> entries = Files.list(dayDir)) {
+            chainDirs = entries.filter(Files::isDirectory).sorted().toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        int storeCount = 0;
+        int priceCount = 0;
+        for (Path chainDir : chainDirs) {
+            String chainCode = chainDir.getFileName().toString();
+            try {
+                ChainResult result = transactionTemplate.execute(status -> ingestChain(priceDate, chainCode, chainDir));
+                storeCount += result.storeCount();
+                priceCount += result.priceCount();
+            } catch (RuntimeException e) {
+                log.error("Price ingest failed for chain={} date={}: {}", chainCode, priceDate, e.getMessage(), e);
+            }
+        }
+
+        log.info("Ingested {} prices from {} stores for {}", priceCount, storeCount, priceDate);
+        eventPublisher.publishEvent(new PriceIngestedEvent(priceDate, priceCount));
+
+        return PriceIngestDto.builder()
+                .priceDate(priceDate)
+                .chainCount(chainDirs.size())
+                .storeCount(storeCount)
+                .priceCount(priceCount)
+                .build();
+    }
+
+    private ChainResult ingestChain(LocalDate priceDate, String chainCode, Path chainDir) {
+        try {
+            List<Object[]> storeRows = new ArrayList<>();
+            CsvUtils.forEachRow(chainDir.resolve("stores.csv"), row -> storeRows.add(new Object[]{
+                    chainCode,
+                    row.get("store_id"),
+                    blankToNull(row.get("type")),
+                    blankToNull(row.get("address")),
+                    blankToNull(row.get("city")),
+                    blankToNull(row.get("zipcode"))
+            }));
+            jdbcTemplate.batchUpdate(UPSERT_STORE, storeRows);
+
+            // Chains key prices by their internal product_id; only rows with a real EAN are kept.
+            Map<String, String> eanByProductId = new HashMap<>();
+            List<Object[]> productRows = new ArrayList<>();
+            CsvUtils.forEachRow(chainDir.resolve("products.csv"), row -> {
+                String ean = row.get("barcode");
+                if (ean == null || !EAN_PATTERN.matcher(ean).matches()) return;
+
+                eanByProductId.put(row.get("product_id"), ean);
+                productRows.add(new Object[]{
+                        ean,
+                        blankToNull(row.get("name")),
+                        blankToNull(row.get("brand")),
+                        blankToNull(row.get("category")),
+                        blankToNull(row.get("unit")),
+                        blankToNull(row.get("quantity"))
+                });
+            });
+            jdbcTemplate.batchUpdate(UPSERT_PRODUCT, productRows);
+
+            List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+            int[] priceCount = {0};
+            CsvUtils.forEachRow(chainDir.resolve("prices.csv"), row -> {
+                String ean = eanByProductId.get(row.get("product_id"));
+                BigDecimal regularPrice = parsePrice(row.get("price"));
+                BigDecimal specialPrice = parsePrice(row.get("special_price"));
+                BigDecimal price = specialPrice != null ? specialPrice : regularPrice;
+                if (ean == null || price == null) return;
+
+                batch.add(new Object[]{priceDate, chainCode, row.get("store_id"), ean, price, regularPrice});
+                if (batch.size() == BATCH_SIZE) {
+                    jdbcTemplate.batchUpdate(UPSERT_PRICE, batch);
+                    priceCount[0] += batch.size();
+                    batch.clear();
+                }
+            });
+            if (!batch.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPSERT_PRICE, batch);
+                priceCount[0] += batch.size();
+            }
+
+            return new ChainResult(storeRows.size(), priceCount[0]);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private BigDecimal parsePrice(String value) {
+        if (value == null || value.isBlank()) return null;
+        try {
+            return new BigDecimal(value.replace(',', '.'));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    private record ChainResult(int storeCount, int priceCount) {
+    }
+}
@@ -0,0 +1,10 @@
+package disscount.price.service;
+
+import java.time.LocalDate;
+
+/**
+ * Published by PriceIngestService once every chain of a price day has been committed.
+ * Downstream stages (indexes, diffs, aggregates) listen for this instead of polling.
+ */
+public record PriceIngestedEvent(LocalDate priceDate, int priceCount) {
+}
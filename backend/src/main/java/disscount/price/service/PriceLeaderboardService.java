@@ -0,0 +1,175 @@
+package disscount.price.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import disscount.price.dao.PriceLevelRepository;
+import disscount.price.dao.StorePriceRepository;
+import disscount.price.dao.StoreRepository;
+import disscount.price.domain.PriceLevel;
+import disscount.price.domain.PriceLevelScope;
+import disscount.price.domain.Store;
+import disscount.price.dto.PriceLeaderboardDto;
+import disscount.price.dto.PriceLevelDto;
+import disscount.util.StoreUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Chain and store price-level leaderboard. After the nightly ingest the levels of the
+ * newest day are computed in the database and kept in the small price_level table;
+ * the ranked result is then held in memory as an immutable snapshot with its ETag, so
+ * reads never touch the database.
+ * <p>
+ * Reference basket: EANs sold by at least {@link #MIN_CHAINS} chains, priced at the
+ * average of the chains' own averages. A chain or store's index is the geometric mean of
+ * its price / reference price over the basket EANs it carries, times 100, so a few
+ * expensive outliers cannot dominate and stores with different assortments stay comparable.
+ * Chains and stores carrying fewer than price.leaderboard.min-ean-count basket EANs are left
+ * out of the ranking, since a kiosk pricing a dozen items is not comparable to a hypermarket.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PriceLeaderboardService {
+
+    private static final int MIN_CHAINS = 2;
+
+    private static final String DELETE_SQL = "DELETE FROM price_level WHERE price_date = ?";
+
+    private static final String REFERENCE_CTE = """
+            WITH chain_price AS (
+                SELECT ean, chain_code, AVG(price) AS price
+                FROM store_price
+                WHERE price_date = ? AND price > 0
+                GROUP BY ean, chain_code
+            ), reference AS (
+                SELECT ean, AVG(price) AS price
+                FROM chain_price
+                GROUP BY ean
+                HAVING COUNT(*) >= ?
+            )
+            """;
+
+    private static final String INSERT_CHAIN_LEVELS_SQL = REFERENCE_CTE + """
+            INSERT INTO price_level (id, price_date, scope, chain_code, store_code, price_index, ean_count)
+            SELECT gen_random_uuid(), ?, 'CHAIN', cp.chain_code, NULL,
+                   ROUND(EXP(AVG(LN(cp.price / r.price))) * 100, 4), COUNT(*)
+            FROM chain_price cp
+            JOIN reference r ON r.ean = cp.ean
+            GROUP BY cp.chain_code
+            """;
+
+    private static final String INSERT_STORE_LEVELS_SQL = REFERENCE_CTE + """
+            INSERT INTO price_level (id, price_date, scope, chain_code, store_code, price_index, ean_count)
+            SELECT gen_random_uuid(), ?, 'STORE', sp.chain_code, sp.store_code,
+                   ROUND(EXP(AVG(LN(sp.price / r.price))) * 100, 4), COUNT(*)
+            FROM store_price sp
+            JOIN reference r ON r.ean = sp.ean
+            WHERE sp.price_date = ? AND sp.price > 0
+            GROUP BY sp.chain_code, sp.store_code
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PriceLevelRepository priceLevelRepository;
+    private final StorePriceRepository storePriceRepository;
+    private final StoreRepository storeRepository;
+
+    @Value("${price.leaderboard.min-ean-count}")
+    private int minEanCount;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        LocalDate latestPrices = storePriceRepository.findLatestPriceDate().orElse(null);
+        LocalDate latestLevels = priceLevelRepository.findLatestPriceDate().orElse(null);
+
+        if (latestPrices != null && (latestLevels == null || latestLevels.isBefore(latestPrices))) {
+            recompute(latestPrices);
+        } else if (latestLevels != null) {
+            load(latestLevels);
+        }
+    }
+
+    @EventListener
+    public void onPriceIngested(PriceIngestedEvent event) {
+        LocalDate current = snapshot.leaderboard().getPriceDate();
+        if (current == null || !event.priceDate().isBefore(current)) {
+            recompute(event.priceDate());
+        }
+    }
+
+    public PriceLeaderboardDto recompute(LocalDate priceDate) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update(DELETE_SQL, priceDate);
+            jdbcTemplate.update(INSERT_CHAIN_LEVELS_SQL, priceDate, MIN_CHAINS, priceDate);
+            jdbcTemplate.update(INSERT_STORE_LEVELS_SQL, priceDate, MIN_CHAINS, priceDate, priceDate);
+        });
+        return load(priceDate);
+    }
+
+    public Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    private PriceLeaderboardDto load(LocalDate priceDate) {
+        List<PriceLevel> levels = priceLevelRepository.findByPriceDateOrderByPriceIndexAsc(priceDate);
+        Map<String, Store> storesByKey = storeRepository.findAll().stream()
+                .collect(Collectors.toMap(s -> StoreUtils.key(s.getChainCode(), s.getCode()), Function.identity(), (a, b) -> a));
+
+        List<PriceLevelDto> chains = new ArrayList<>();
+        List<PriceLevelDto> stores = new ArrayList<>();
+        for (PriceLevel level : levels) {
+            // Filtered here rather than in SQL so a changed minimum applies to stored levels too
+            if (level.getEanCount() < minEanCount) {
+                continue;
+            }
+            if (level.getScope() == PriceLevelScope.CHAIN) {
+                chains.add(mapToDto(level, chains.size() + 1, null));
+            } else {
+                Store store = storesByKey.get(StoreUtils.key(level.getChainCode(), level.getStoreCode()));
+                stores.add(mapToDto(level, stores.size() + 1, store));
+            }
+        }
+
+        PriceLeaderboardDto leaderboard = PriceLeaderboardDto.builder()
+                .priceDate(priceDate)
+                .chains(List.copyOf(chains))
+                .stores(List.copyOf(stores))
+                .build();
+        // DTOs hash by value, so an unchanged recompute keeps the same ETag
+        snapshot = new Snapshot(leaderboard, "\"" + priceDate + "-" + Integer.toHexString(leaderboard.hashCode()) + "\"");
+        log.info("Price leaderboard for {} loaded: {} chains, {} stores", priceDate, chains.size(), stores.size());
+        return leaderboard;
+    }
+
+    private PriceLevelDto mapToDto(PriceLevel level, int rank, Store store) {
+        return PriceLevelDto.builder()
+                .rank(rank)
+                .chainCode(level.getChainCode())
+                .storeCode(level.getStoreCode())
+                .address(store != null ? store.getAddress() : null)
+                .city(store != null ? store.getCity() : null)
+                .priceIndex(level.getPriceIndex())
+                .eanCount(level.getEanCount())
+                .build();
+    }
+
+    public record Snapshot(PriceLeaderboardDto leaderboard, String etag) {
+        static final Snapshot EMPTY = new Snapshot(
+                PriceLeaderboardDto.builder().chains(List.of()).stores(List.of()).build(), "\"empty\"");
+    }
+}
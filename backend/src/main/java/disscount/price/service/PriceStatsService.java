@@ -0,0 +1,196 @@
+package disscount.price.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import disscount.price.dao.StorePriceRepository;
+import disscount.price.dto.PriceStatsDto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Rolling 7/30/90-day price averages and minimums per EAN, maintained incrementally. Each
+ * ingest folds exactly one new day into a {@link RollingPriceWindow} per EAN instead of
+ * re-aggregating 90 days of store prices. Reads come from an immutable in-memory snapshot
+ * republished after every update, and the same numbers are written to the compact
+ * price_stats table for SQL consumers. Watchlist alerts read the 30-day minimum from there
+ * as the reference price of a discount.
+ * <p>
+ * The windows live only in memory, so startup replays the last 90 days once. Re-ingesting
+ * a day already inside the windows changes history and also triggers a replay.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PriceStatsService {
+
+    private static final int LONGEST_WINDOW = RollingPriceWindow.WINDOWS[RollingPriceWindow.WINDOWS.length - 1];
+
+    // Daily price = average of the chains' own averages; daily minimum = cheapest store
+    private static final String DAY_SQL = """
+            SELECT ean, ROUND(AVG(chain_average) * 100) AS average_cents, ROUND(MIN(chain_minimum) * 100) AS minimum_cents
+            FROM (
+                SELECT ean, AVG(price) AS chain_average, MIN(price) AS chain_minimum
+                FROM store_price
+                WHERE price_date = ? AND price > 0
+                GROUP BY ean, chain_code
+            ) c
+            GROUP BY ean
+            """;
+
+    private static final String DELETE_SQL = "DELETE FROM price_stats";
+
+    private static final String INSERT_SQL = """
+            INSERT INTO price_stats (ean, price_date, average_7, average_30, average_90, minimum_7, minimum_30, minimum_90)
+            SELECT s.ean, ?, s.average_7, s.average_30, s.average_90, s.minimum_7, s.minimum_30, s.minimum_90
+            FROM unnest(?::text[], ?::numeric[], ?::numeric[], ?::numeric[], ?::numeric[], ?::numeric[], ?::numeric[])
+                 AS s(ean, average_7, average_30, average_90, minimum_7, minimum_30, minimum_90)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StorePriceRepository storePriceRepository;
+
+    // Guarded by this; only the ingest and startup paths touch them
+    private final Map<String, RollingPriceWindow> windows = new HashMap<>();
+    private LocalDate lastDay;
+
+    private volatile Map<String, PriceStatsDto> snapshot = Map.of();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        storePriceRepository.findLatestPriceDate().ifPresent(this::rebuild);
+    }
+
+    // Before the price diff, whose change event triggers the watchlist alerts that read price_stats
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener
+    public synchronized void onPriceIngested(PriceIngestedEvent event) {
+        LocalDate priceDate = event.priceDate();
+        if (lastDay == null || ChronoUnit.DAYS.between(lastDay, priceDate) > LONGEST_WINDOW) {
+            rebuild(priceDate);
+        } else if (priceDate.isAfter(lastDay)) {
+            // Days without an ingest in between count as not priced
+            for (LocalDate day = lastDay.plusDays(1); !day.isAfter(priceDate); day = day.plusDays(1)) {
+                advance(day);
+            }
+            publish();
+        } else if (ChronoUnit.DAYS.between(priceDate, lastDay) < LONGEST_WINDOW) {
+            rebuild(lastDay);
+        }
+    }
+
+    /**
+     * Statistics of the EAN as of the newest ingested day, empty if it was not priced in
+     * the last 90 days.
+     */
+    public Optional<PriceStatsDto> getStats(String ean) {
+        return Optional.ofNullable(snapshot.get(ean));
+    }
+
+    /**
+     * Statistics of every tracked EAN as of the newest ingested day; the map is immutable.
+     */
+    public Map<String, PriceStatsDto> getSnapshot() {
+        return snapshot;
+    }
+
+    private synchronized void rebuild(LocalDate upTo) {
+        windows.clear();
+        for (LocalDate day = upTo.minusDays(LONGEST_WINDOW - 1); !day.isAfter(upTo); day = day.plusDays(1)) {
+            advance(day);
+        }
+        publish();
+    }
+
+    private void advance(LocalDate day) {
+        Map<String, int[]> prices = new HashMap<>();
+        jdbcTemplate.query(DAY_SQL, (RowCallbackHandler) rs ->
+                prices.put(rs.getString("ean"), new int[]{rs.getInt("average_cents"), rs.getInt("minimum_cents")}), day);
+
+        long epochDay = day.toEpochDay();
+        Iterator<Map.Entry<String, RollingPriceWindow>> it = windows.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, RollingPriceWindow> entry = it.next();
+            int[] price = prices.remove(entry.getKey());
+            if (price != null) {
+                entry.getValue().advance(epochDay, price[0], price[1]);
+            } else {
+                entry.getValue().advance(epochDay, RollingPriceWindow.MISSING, RollingPriceWindow.MISSING);
+                if (entry.getValue().isEmpty()) {
+                    it.remove();
+                }
+            }
+        }
+        prices.forEach((ean, price) -> {
+            RollingPriceWindow window = new RollingPriceWindow();
+            window.advance(epochDay, price[0], price[1]);
+            windows.put(ean, window);
+        });
+
+        lastDay = day;
+    }
+
+    private void publish() {
+        int size = windows.size();
+        String[] eans = new String[size];
+        int windowCount = RollingPriceWindow.WINDOWS.length;
+        BigDecimal[][] columns = new BigDecimal[windowCount * 2][size];
+        Map<String, PriceStatsDto> stats = new HashMap<>(size * 4 / 3 + 1);
+
+        int row = 0;
+        for (Map.Entry<String, RollingPriceWindow> entry : windows.entrySet()) {
+            RollingPriceWindow window = entry.getValue();
+            eans[row] = entry.getKey();
+            for (int i = 0; i < windowCount; i++) {
+                columns[i][row] = toEuros(window.average(i));
+                columns[i + windowCount][row] = toEuros(window.minimum(i));
+            }
+            stats.put(entry.getKey(), PriceStatsDto.builder()
+                    .ean(entry.getKey())
+                    .priceDate(lastDay)
+                    .average7(columns[0][row])
+                    .average30(columns[1][row])
+                    .average90(columns[2][row])
+                    .minimum7(columns[3][row])
+                    .minimum30(columns[4][row])
+                    .minimum90(columns[5][row])
+                    .build());
+            row++;
+        }
+
+        LocalDate priceDate = lastDay;
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update(DELETE_SQL);
+            jdbcTemplate.update(INSERT_SQL, ps -> {
+                ps.setObject(1, priceDate);
+                ps.setArray(2, ps.getConnection().createArrayOf("text", eans));
+                for (int i = 0; i < columns.length; i++) {
+                    ps.setArray(i + 3, ps.getConnection().createArrayOf("numeric", columns[i]));
+                }
+            });
+        });
+
+        snapshot = Collections.unmodifiableMap(stats);
+        log.info("Price statistics as of {} published for {} EANs", priceDate, size);
+    }
+
+    private static BigDecimal toEuros(int cents) {
+        return cents == RollingPriceWindow.MISSING ? null : BigDecimal.valueOf(cents, 2);
+    }
+}
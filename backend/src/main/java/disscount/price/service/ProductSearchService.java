@@ -0,0 +1,313 @@
+package disscount.price.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import disscount.price.dao.ProductRepository;
+import disscount.price.dao.StorePriceRepository;
+import disscount.price.domain.Product;
+import disscount.price.dto.ProductSearchResultDto;
+import disscount.util.TextUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory typeahead over product name, brand and EAN. Text is diacritic-folded and
+ * split into words; each word contributes prefix-anchored trigrams ("$ab", "abc", ...)
+ * to an inverted index. A query scores products by the share of its trigrams they
+ * contain, boosted for name-prefix matches and ranked by chain coverage on ties.
+ * <p>
+ * The index is an immutable snapshot swapped atomically, so searches never lock.
+ * After each ingest only the new EANs are loaded from the database and tokenized. They
+ * get the next document numbers, so the posting lists of untouched trigrams are shared
+ * with the previous snapshot and the touched ones only grow at the end.
+ * <p>
+ * Posting lists are sorted by document, so a query merges its lists in one pass and
+ * keeps only the best {@code limit} documents; it allocates nothing per product.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductSearchService {
+
+    private static final int MAX_LIMIT = 100;
+    // Share of the query's trigrams a product must contain to be returned at all
+    private static final double MIN_COVERAGE = 0.6;
+    private static final int EAN_MIN_LENGTH = 8;
+
+    private static final String CHAIN_COVERAGE_SQL =
+            "SELECT ean, COUNT(DISTINCT chain_code) FROM store_price WHERE price_date = ? GROUP BY ean";
+
+    private final ProductRepository productRepository;
+    private final StorePriceRepository storePriceRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        Map<String, Integer> coverage = storePriceRepository.findLatestPriceDate()
+                .map(this::loadChainCoverage)
+                .orElseGet(HashMap::new);
+
+        snapshot = Snapshot.build(productRepository.findAll(), coverage);
+        log.info("Product search index loaded with {} products", snapshot.size());
+    }
+
+    @EventListener
+    public void onPriceIngested(PriceIngestedEvent event) {
+        Map<String, Integer> coverage = loadChainCoverage(event.priceDate());
+        Snapshot current = snapshot;
+
+        List<String> newEans = coverage.keySet().stream()
+                .filter(ean -> !current.contains(ean))
+                .toList();
+
+        snapshot = current.extend(productRepository.findAllById(newEans), coverage);
+        log.info("Product search index updated: {} products ({} new)", snapshot.size(), newEans.size());
+    }
+
+    public List<ProductSearchResultDto> search(String query, int limit) {
+        int effectiveLimit = Math.max(1, Math.min(limit, MAX_LIMIT));
+        return snapshot.search(query, effectiveLimit);
+    }
+
+    private Map<String, Integer> loadChainCoverage(LocalDate priceDate) {
+        Map<String, Integer> coverage = new HashMap<>();
+        jdbcTemplate.query(CHAIN_COVERAGE_SQL,
+                rs -> { coverage.put(rs.getString(1), rs.getInt(2)); },
+                priceDate);
+        return coverage;
+    }
+
+    private static final class Snapshot {
+
+        static final Snapshot EMPTY = build(List.of(), Map.of());
+
+        private final Product[] products;
+        private final String[] foldedNames;
+        private final int[] chainCounts;
+        private final Map<String, Integer> docByEan;
+        private final Map<Long, int[]> postings;
+
+        private Snapshot(Product[] products, String[] foldedNames, int[] chainCounts,
+                         Map<String, Integer> docByEan, Map<Long, int[]> postings) {
+            this.products = products;
+            this.foldedNames = foldedNames;
+            this.chainCounts = chainCounts;
+            this.docByEan = docByEan;
+            this.postings = postings;
+        }
+
+        static Snapshot build(List<Product> source, Map<String, Integer> coverage) {
+            return new Snapshot(new Product[0], new String[0], new int[0], Map.of(), Map.of())
+                    .extend(source, coverage);
+        }
+
+        /**
+         * Copy of this snapshot with the added products appended as new documents and chain
+         * counts refreshed from coverage. Only the added products are tokenized; posting
+         * lists no added product contributes to are shared, not copied.
+         */
+        Snapshot extend(List<Product> added, Map<String, Integer> coverage) {
+            int base = products.length;
+            Product[] nextProducts = Arrays.copyOf(products, base + added.size());
+            String[] nextNames = Arrays.copyOf(foldedNames, nextProducts.length);
+            Map<String, Integer> nextDocByEan = new HashMap<>(docByEan);
+            Map<Long, List<Integer>> appended = new HashMap<>();
+
+            for (int doc = base; doc < nextProducts.length; doc++) {
+                Product product = added.get(doc - base);
+                nextProducts[doc] = product;
+                nextNames[doc] = TextUtils.fold(product.getName());
+                nextDocByEan.put(product.getEan(), doc);
+
+                Set<Long> grams = new HashSet<>();
+                addGrams(nextNames[doc], grams);
+                addGrams(TextUtils.fold(product.getBrand()), grams);
+                addGrams(product.getEan(), grams);
+                for (Long gram : grams) {
+                    appended.computeIfAbsent(gram, key -> new ArrayList<>()).add(doc);
+                }
+            }
+
+            Map<Long, int[]> nextPostings = new HashMap<>(postings);
+            appended.forEach((gram, docs) -> {
+                int[] previous = postings.getOrDefault(gram, new int[0]);
+                int[] merged = Arrays.copyOf(previous, previous.length + docs.size());
+                for (int i = 0; i < docs.size(); i++) {
+                    merged[previous.length + i] = docs.get(i);
+                }
+                nextPostings.put(gram, merged);
+            });
+
+            int[] nextChainCounts = new int[nextProducts.length];
+            for (int doc = 0; doc < nextProducts.length; doc++) {
+                nextChainCounts[doc] = coverage.getOrDefault(nextProducts[doc].getEan(), 0);
+            }
+
+            return new Snapshot(nextProducts, nextNames, nextChainCounts, nextDocByEan, nextPostings);
+        }
+
+        int size() {
+            return products.length;
+        }
+
+        boolean contains(String ean) {
+            return docByEan.containsKey(ean);
+        }
+
+        List<ProductSearchResultDto> search(String query, int limit) {
+            String folded = TextUtils.fold(query).trim();
+            if (folded.isEmpty()) {
+                return List.of();
+            }
+
+            // Scanned barcodes are exact lookups
+            if (folded.length() >= EAN_MIN_LENGTH && folded.chars().allMatch(Character::isDigit)) {
+                Integer doc = docByEan.get(folded);
+                if (doc != null) {
+                    return List.of(toDto(doc, 1.0));
+                }
+            }
+
+            Set<Long> queryGrams = new LinkedHashSet<>();
+            addGrams(folded, queryGrams);
+            if (queryGrams.isEmpty()) {
+                return List.of();
+            }
+
+            int[][] lists = new int[queryGrams.size()][];
+            int listCount = 0;
+            for (Long gram : queryGrams) {
+                int[] docs = postings.get(gram);
+                if (docs != null) {
+                    lists[listCount++] = docs;
+                }
+            }
+
+            int minHits = (int) Math.ceil(queryGrams.size() * MIN_COVERAGE);
+            if (listCount < minHits) {
+                return List.of();
+            }
+
+            // k-way merge over the sorted lists: each round takes the lowest document left,
+            // counts the lists that contain it and advances past it
+            int[] positions = new int[listCount];
+            TopHits top = new TopHits(limit);
+            while (true) {
+                int doc = Integer.MAX_VALUE;
+                for (int i = 0; i < listCount; i++) {
+                    if (positions[i] < lists[i].length) {
+                        doc = Math.min(doc, lists[i][positions[i]]);
+                    }
+                }
+                if (doc == Integer.MAX_VALUE) {
+                    break;
+                }
+
+                int hits = 0;
+                for (int i = 0; i < listCount; i++) {
+                    if (positions[i] < lists[i].length && lists[i][positions[i]] == doc) {
+                        hits++;
+                        positions[i]++;
+                    }
+                }
+                if (hits < minHits) continue;
+
+                double score = (double) hits / queryGrams.size();
+                if (foldedNames[doc].startsWith(folded)) {
+                    score += 0.5;
+                } else if (foldedNames[doc].contains(folded)) {
+                    score += 0.25;
+                }
+                top.offer(doc, score);
+            }
+
+            List<ProductSearchResultDto> results = new ArrayList<>(top.size);
+            for (int i = 0; i < top.size; i++) {
+                results.add(toDto(top.docs[i], top.scores[i]));
+            }
+            return results;
+        }
+
+        private ProductSearchResultDto toDto(int doc, double score) {
+            Product product = products[doc];
+            return ProductSearchResultDto.builder()
+                    .ean(product.getEan())
+                    .name(product.getName())
+                    .brand(product.getBrand())
+                    .quantity(product.getQuantity())
+                    .unit(product.getUnit())
+                    .chainCount(chainCounts[doc])
+                    .score(score)
+                    .build();
+        }
+
+        // Best documents so far, sorted best first; ties go to wider chain coverage, then shorter names
+        private final class TopHits {
+
+            private final int[] docs;
+            private final double[] scores;
+            private int size;
+
+            TopHits(int limit) {
+                this.docs = new int[limit];
+                this.scores = new double[limit];
+            }
+
+            void offer(int doc, double score) {
+                if (size == docs.length && !ranksBefore(doc, score, docs[size - 1], scores[size - 1])) {
+                    return;
+                }
+                int i = Math.min(size, docs.length - 1);
+                while (i > 0 && ranksBefore(doc, score, docs[i - 1], scores[i - 1])) {
+                    docs[i] = docs[i - 1];
+                    scores[i] = scores[i - 1];
+                    i--;
+                }
+                docs[i] = doc;
+                scores[i] = score;
+                size = Math.min(size + 1, docs.length);
+            }
+
+            private boolean ranksBefore(int doc, double score, int other, double otherScore) {
+                if (score != otherScore) {
+                    return score > otherScore;
+                }
+                if (chainCounts[doc] != chainCounts[other]) {
+                    return chainCounts[doc] > chainCounts[other];
+                }
+                return foldedNames[doc].length() < foldedNames[other].length();
+            }
+        }
+
+        /** Prefix-anchored trigrams of every word: "mlijeko" -> "$ml", "mli", "lij", ... */
+        private static void addGrams(String text, Set<Long> grams) {
+            if (text == null || text.isEmpty()) return;
+
+            for (String word : text.split("[^\\p{L}\\p{N}]+")) {
+                if (word.length() < 2) continue;
+
+                String padded = "$" + word;
+                for (int i = 0; i + 3 <= padded.length(); i++) {
+                    grams.add(((long) padded.charAt(i) << 32)
+                            | ((long) padded.charAt(i + 1) << 16)
+                            | padded.charAt(i + 2));
+                }
+            }
+        }
+    }
+}
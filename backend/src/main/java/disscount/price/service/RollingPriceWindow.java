@@ -0,0 +1,166 @@
+package disscount.price.service;
+
+/**
+ * Sliding 7/30/90-day average and minimum of one EAN's daily price, advanced one day at a
+ * time. Prices are in cents; {@link #MISSING} marks a day the EAN was not priced.
+ * <p>
+ * Averages keep a running sum and count per window. The value leaving a window is looked
+ * up in a run-length list of daily averages, which stays short because prices rarely
+ * change. Minimums use one monotonic deque over the longest window. Its first entry that
+ * falls inside a shorter window is that window's minimum, so one deque serves all three.
+ * Each day costs amortised O(1) per EAN and memory is proportional to the number of price
+ * changes, not days. Not thread-safe.
+ */
+final class RollingPriceWindow {
+
+    static final int MISSING = -1;
+    static final int[] WINDOWS = {7, 30, 90};
+    private static final int LONGEST = WINDOWS[WINDOWS.length - 1];
+
+    // (first day of run, average cents or MISSING), oldest first
+    private final PairDeque runs = new PairDeque();
+    // (day, minimum cents) with strictly increasing values, oldest first
+    private final PairDeque minimums = new PairDeque();
+    private final long[] sums = new long[WINDOWS.length];
+    private final int[] counts = new int[WINDOWS.length];
+    private long lastDay = Long.MIN_VALUE;
+
+    /**
+     * Appends the next day; epochDay must be exactly one after the previous call's.
+     */
+    void advance(long epochDay, int averageCents, int minimumCents) {
+        if (lastDay != Long.MIN_VALUE && epochDay != lastDay + 1) {
+            throw new IllegalArgumentException("Expected day " + (lastDay + 1) + " but got " + epochDay);
+        }
+
+        for (int i = 0; i < WINDOWS.length; i++) {
+            int expired = valueAt(epochDay - WINDOWS[i]);
+            if (expired != MISSING) {
+                sums[i] -= expired;
+                counts[i]--;
+            }
+            if (averageCents != MISSING) {
+                sums[i] += averageCents;
+                counts[i]++;
+            }
+        }
+
+        if (runs.isEmpty() || runs.lastValue() != averageCents) {
+            runs.addLast(epochDay, averageCents);
+        }
+        // The next call expires day epochDay + 1 - LONGEST; keep only the run covering it and later ones
+        while (runs.size() > 1 && runs.key(1) <= epochDay + 1 - LONGEST) {
+            runs.removeFirst();
+        }
+
+        if (minimumCents != MISSING) {
+            while (!minimums.isEmpty() && minimums.lastValue() >= minimumCents) {
+                minimums.removeLast();
+            }
+            minimums.addLast(epochDay, minimumCents);
+        }
+        while (!minimums.isEmpty() && minimums.key(0) <= epochDay - LONGEST) {
+            minimums.removeFirst();
+        }
+
+        lastDay = epochDay;
+    }
+
+    /**
+     * True when no day in the longest window was priced, so the window can be dropped.
+     */
+    boolean isEmpty() {
+        return counts[WINDOWS.length - 1] == 0;
+    }
+
+    /**
+     * Average cents over window i of {@link #WINDOWS}, or MISSING if no day was priced.
+     */
+    int average(int i) {
+        return counts[i] == 0 ? MISSING : (int) ((sums[i] * 2 + counts[i]) / (counts[i] * 2L));
+    }
+
+    /**
+     * Minimum cents over window i of {@link #WINDOWS}, or MISSING if no day was priced.
+     */
+    int minimum(int i) {
+        long from = lastDay - WINDOWS[i];
+        for (int j = 0; j < minimums.size(); j++) {
+            if (minimums.key(j) > from) {
+                return minimums.value(j);
+            }
+        }
+        return MISSING;
+    }
+
+    private int valueAt(long epochDay) {
+        for (int j = runs.size() - 1; j >= 0; j--) {
+            if (runs.key(j) <= epochDay) {
+                return runs.value(j);
+            }
+        }
+        return MISSING;
+    }
+
+    /**
+     * Growable ring of (long key, int value) pairs.
+     */
+    private static final class PairDeque {
+
+        private long[] keys = new long[2];
+        private int[] values = new int[2];
+        private int head;
+        private int size;
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        int size() {
+            return size;
+        }
+
+        long key(int i) {
+            return keys[(head + i) % keys.length];
+        }
+
+        int value(int i) {
+            return values[(head + i) % values.length];
+        }
+
+        int lastValue() {
+            return value(size - 1);
+        }
+
+        void addLast(long key, int value) {
+            if (size == keys.length) {
+                grow();
+            }
+            int slot = (head + size) % keys.length;
+            keys[slot] = key;
+            values[slot] = value;
+            size++;
+        }
+
+        void removeFirst() {
+            head = (head + 1) % keys.length;
+            size--;
+        }
+
+        void removeLast() {
+            size--;
+        }
+
+        private void grow() {
+            long[] newKeys = new long[keys.length * 2];
+            int[] newValues = new int[values.length * 2];
+            for (int i = 0; i < size; i++) {
+                newKeys[i] = key(i);
+                newValues[i] = value(i);
+            }
+            keys = newKeys;
+            values = newValues;
+            head = 0;
+        }
+    }
+}
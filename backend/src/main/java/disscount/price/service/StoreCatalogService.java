@@ -0,0 +1,165 @@
+package disscount.price.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import disscount.pinnedPlace.dao.PinnedPlaceRepository;
+import disscount.pinnedPlace.domain.PinnedPlace;
+import disscount.price.dto.NearbyStoreDto;
+import disscount.price.dto.PlaceStoresDto;
+import disscount.util.CsvUtils;
+import disscount.util.TextUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Store locations from a local catalog file (CSV: chain_code, code, address, city, zipcode,
+ * lat, lon), indexed in a StoreGridIndex. Pinned places are city names, so a place is
+ * located at the centroid of its catalog stores.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StoreCatalogService {
+
+    private static final int MAX_NEAREST = 50;
+    private static final double MAX_RADIUS_KM = 50;
+
+    private final PinnedPlaceRepository pinnedPlaceRepository;
+
+    @Value("${store.catalog.file}")
+    private String catalogFile;
+
+    private volatile Catalog catalog = Catalog.EMPTY;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        Path file = Path.of(catalogFile);
+        if (!Files.exists(file)) {
+            log.warn("Store catalog {} not found; nearby-store queries will return no stores", file);
+            return;
+        }
+
+        List<CatalogStore> stores = new ArrayList<>();
+        try {
+            CsvUtils.forEachRow(file, row -> {
+                Double lat = parseCoordinate(row.get("lat"));
+                Double lon = parseCoordinate(row.get("lon"));
+                if (lat == null || lon == null) return;
+
+                stores.add(new CatalogStore(row.get("chain_code"), row.get("code"), row.get("address"),
+                        row.get("city"), lat, lon));
+            });
+        } catch (IOException e) {
+            log.error("Failed to load store catalog {}: {}", file, e.getMessage(), e);
+            return;
+        }
+
+        catalog = Catalog.build(stores);
+        log.info("Store catalog loaded with {} located stores", stores.size());
+    }
+
+    public List<NearbyStoreDto> nearest(double lat, double lon, int k) {
+        Catalog current = catalog;
+        return toDtos(current, current.grid().nearest(lat, lon, Math.min(k, MAX_NEAREST)));
+    }
+
+    public List<NearbyStoreDto> within(double lat, double lon, double radiusKm) {
+        Catalog current = catalog;
+        return toDtos(current, current.grid().within(lat, lon, Math.min(radiusKm, MAX_RADIUS_KM)));
+    }
+
+    public List<PlaceStoresDto> nearestPerPinnedPlace(UUID userId, int k) {
+        return perPinnedPlace(userId, center -> nearest(center[0], center[1], k));
+    }
+
+    public List<PlaceStoresDto> withinPerPinnedPlace(UUID userId, double radiusKm) {
+        return perPinnedPlace(userId, center -> within(center[0], center[1], radiusKm));
+    }
+
+    private List<PlaceStoresDto> perPinnedPlace(UUID userId, Function<double[], List<NearbyStoreDto>> query) {
+        Catalog current = catalog;
+        List<PlaceStoresDto> result = new ArrayList<>();
+
+        for (PinnedPlace place : pinnedPlaceRepository.findByUserId(userId)) {
+            double[] center = current.cityCenters().get(TextUtils.fold(place.getPlaceApiId()));
+            result.add(PlaceStoresDto.builder()
+                    .placeApiId(place.getPlaceApiId())
+                    .placeName(place.getPlaceName())
+                    .lat(center != null ? center[0] : null)
+                    .lon(center != null ? center[1] : null)
+                    .stores(center != null ? query.apply(center) : List.of())
+                    .build());
+        }
+        return result;
+    }
+
+    private List<NearbyStoreDto> toDtos(Catalog current, List<StoreGridIndex.Hit> hits) {
+        return hits.stream()
+                .map(hit -> {
+                    CatalogStore store = current.stores().get(hit.store());
+                    return NearbyStoreDto.builder()
+                            .chainCode(store.chainCode())
+                            .code(store.code())
+                            .address(store.address())
+                            .city(store.city())
+                            .lat(store.lat())
+                            .lon(store.lon())
+                            .distanceKm(Math.round(hit.distanceKm() * 100) / 100.0)
+                            .build();
+                })
+                .toList();
+    }
+
+    private Double parseCoordinate(String value) {
+        if (value == null || value.isBlank()) return null;
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private record CatalogStore(String chainCode, String code, String address, String city, double lat, double lon) {
+    }
+
+    private record Catalog(List<CatalogStore> stores, StoreGridIndex grid, Map<String, double[]> cityCenters) {
+
+        static final Catalog EMPTY = build(List.of());
+
+        static Catalog build(List<CatalogStore> stores) {
+            double[] lats = new double[stores.size()];
+            double[] lons = new double[stores.size()];
+            // folded city -> {latSum, lonSum, count}
+            Map<String, double[]> sums = new HashMap<>();
+            for (int i = 0; i < stores.size(); i++) {
+                CatalogStore store = stores.get(i);
+                lats[i] = store.lat();
+                lons[i] = store.lon();
+                if (store.city() == null) continue;
+
+                double[] sum = sums.computeIfAbsent(TextUtils.fold(store.city().trim()), city -> new double[3]);
+                sum[0] += store.lat();
+                sum[1] += store.lon();
+                sum[2]++;
+            }
+
+            Map<String, double[]> centers = new HashMap<>();
+            sums.forEach((city, sum) -> centers.put(city, new double[]{sum[0] / sum[2], sum[1] / sum[2]}));
+
+            return new Catalog(List.copyOf(stores), new StoreGridIndex(lats, lons), centers);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package disscount.price.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+/**
+ * Immutable uniform-grid index over store coordinates. Stores are bucketed into fixed
+ * lat/lon cells laid out CSR-style (cellStart offsets into one int array), so a query
+ * touches only the handful of cells around the point and allocates almost nothing.
+ */
+public final class StoreGridIndex {
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE_LAT = 111.32;
+    // ~2.2 km per cell north-south; small enough for city-level queries
+    private static final double CELL_DEGREES = 0.02;
+
+    private final double[] lats;
+    private final double[] lons;
+    private final double minLat;
+    private final double minLon;
+    private final int rows;
+    private final int cols;
+    private final int[] cellStart;
+    private final int[] cellItems;
+
+    public StoreGridIndex(double[] lats, double[] lons) {
+        this.lats = lats;
+        this.lons = lons;
+
+        int n = lats.length;
+        this.minLat = n == 0 ? 0 : Arrays.stream(lats).min().getAsDouble();
+        this.minLon = n == 0 ? 0 : Arrays.stream(lons).min().getAsDouble();
+        double maxLat = n == 0 ? 0 : Arrays.stream(lats).max().getAsDouble();
+        double maxLon = n == 0 ? 0 : Arrays.stream(lons).max().getAsDouble();
+        this.rows = (int) ((maxLat - minLat) / CELL_DEGREES) + 1;
+        this.cols = (int) ((maxLon - minLon) / CELL_DEGREES) + 1;
+
+        int[] cellOf = new int[n];
+        this.cellStart = new int[rows * cols + 1];
+        for (int i = 0; i < n; i++) {
+            cellOf[i] = row(lats[i]) * cols + col(lons[i]);
+            cellStart[cellOf[i] + 1]++;
+        }
+        for (int c = 0; c < rows * cols; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+
+        this.cellItems = new int[n];
+        int[] fill = Arrays.copyOf(cellStart, cellStart.length);
+        for (int i = 0; i < n; i++) {
+            cellItems[fill[cellOf[i]]++] = i;
+        }
+    }
+
+    public int size() {
+        return lats.length;
+    }
+
+    /**
+     * Up to k nearest stores, closest first. Searches square rings of cells outwards and
+     * stops once no unvisited cell can hold anything closer than the current k-th hit.
+     */
+    public List<Hit> nearest(double lat, double lon, int k) {
+        if (k <= 0 || lats.length == 0) {
+            return List.of();
+        }
+
+        PriorityQueue<Hit> best = new PriorityQueue<>(Comparator.comparingDouble(Hit::distanceKm).reversed());
+        int centerRow = row(lat);
+        int centerCol = col(lon);
+        double ringKm = CELL_DEGREES * Math.min(KM_PER_DEGREE_LAT, KM_PER_DEGREE_LAT * Math.cos(Math.toRadians(lat)));
+        int maxRing = Math.max(rows, cols) + Math.max(Math.abs(centerRow), Math.abs(centerCol));
+
+        for (int ring = 0; ring <= maxRing; ring++) {
+            // Everything in ring r is at least (r - 1) cells away from the query point
+            if (best.size() == k && best.peek().distanceKm() <= (ring - 1) * ringKm) {
+                break;
+            }
+
+            for (int r = centerRow - ring; r <= centerRow + ring; r++) {
+                if (r < 0 || r >= rows) continue;
+                boolean edgeRow = r == centerRow - ring || r == centerRow + ring;
+                int step = edgeRow ? 1 : Math.max(1, 2 * ring);
+                for (int c = centerCol - ring; c <= centerCol + ring; c += step) {
+                    if (c < 0 || c >= cols) continue;
+                    visitCell(r * cols + c, lat, lon, hit -> {
+                        if (best.size() < k) {
+                            best.add(hit);
+                        } else if (hit.distanceKm() < best.peek().distanceKm()) {
+                            best.poll();
+                            best.add(hit);
+                        }
+                    });
+                }
+            }
+        }
+
+        List<Hit> hits = new ArrayList<>(best);
+        hits.sort(Comparator.comparingDouble(Hit::distanceKm));
+        return hits;
+    }
+
+    /** All stores within radiusKm, closest first. */
+    public List<Hit> within(double lat, double lon, double radiusKm) {
+        if (radiusKm <= 0 || lats.length == 0) {
+            return List.of();
+        }
+
+        double latDelta = radiusKm / KM_PER_DEGREE_LAT;
+        double lonDelta = radiusKm / (KM_PER_DEGREE_LAT * Math.max(0.01, Math.cos(Math.toRadians(lat))));
+        int fromRow = Math.max(0, row(lat - latDelta));
+        int toRow = Math.min(rows - 1, row(lat + latDelta));
+        int fromCol = Math.max(0, col(lon - lonDelta));
+        int toCol = Math.min(cols - 1, col(lon + lonDelta));
+
+        List<Hit> hits = new ArrayList<>();
+        for (int r = fromRow; r <= toRow; r++) {
+            for (int c = fromCol; c <= toCol; c++) {
+                visitCell(r * cols + c, lat, lon, hit -> {
+                    if (hit.distanceKm() <= radiusKm) {
+                        hits.add(hit);
+                    }
+                });
+            }
+        }
+        hits.sort(Comparator.comparingDouble(Hit::distanceKm));
+        return hits;
+    }
+
+    private void visitCell(int cell, double lat, double lon, Consumer<Hit> consumer) {
+        for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+            int store = cellItems[i];
+            consumer.accept(new Hit(store, haversineKm(lat, lon, lats[store], lons[store])));
+        }
+    }
+
+    // Points outside the indexed box are clamped to the edge cells
+    private int row(double lat) {
+        return Math.min(rows - 1, Math.max(0, (int) ((lat - minLat) / CELL_DEGREES)));
+    }
+
+    private int col(double lon) {
+        return Math.min(cols - 1, Math.max(0, (int) ((lon - minLon) / CELL_DEGREES)));
+    }
+
+    public static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.sqrt(a));
+    }
+
+    /** Index into the arrays the grid was built from, plus the distance from the query point. */
+    public record Hit(int store, double distanceKm) {
+    }
+}
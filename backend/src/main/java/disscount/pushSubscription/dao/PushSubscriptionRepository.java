@@ -0,0 +1,36 @@
+package disscount.pushSubscription.dao;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import disscount.pushSubscription.domain.PushSubscription;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface PushSubscriptionRepository extends JpaRepository<PushSubscription, UUID> {
+
+    Optional<PushSubscription> findByEndpoint(String endpoint);
+
+    @Query("SELECT ps FROM PushSubscription ps WHERE ps.user.id = :userId")
+    List<PushSubscription> findByUserId(@Param("userId") UUID userId);
+
+    // Subscriptions of users who currently have push enabled
+    @Query("SELECT ps FROM PushSubscription ps JOIN ps.user u " +
+           "WHERE u.id IN :userIds AND u.notificationsPushEnabledAt IS NOT NULL AND u.deletedAt IS NULL")
+    List<PushSubscription> findDeliverableByUserIds(@Param("userIds") Collection<UUID> userIds);
+
+    @Modifying
+    @Query("DELETE FROM PushSubscription ps WHERE ps.endpoint = :endpoint AND ps.user.id = :userId")
+    int deleteByEndpointAndUserId(@Param("endpoint") String endpoint, @Param("userId") UUID userId);
+
+    @Modifying
+    @Query("DELETE FROM PushSubscription ps WHERE ps.endpoint IN :endpoints")
+    int deleteByEndpointIn(@Param("endpoints") Collection<String> endpoints);
+}
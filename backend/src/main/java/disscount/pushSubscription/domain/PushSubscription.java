@@ -0,0 +1,51 @@
+package disscount.pushSubscription.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import disscount.user.domain.User;
+
+/**
+ * One browser's Web Push subscription. A user has one per device; endpoints the push
+ * service reports as gone are deleted by the sender.
+ */
+@Entity
+@Table(name = "push_subscription",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"endpoint"}),
+       indexes = @Index(name = "idx_push_subscription_user", columnList = "user_id"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PushSubscription {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(name = "endpoint", nullable = false, columnDefinition = "TEXT")
+    private String endpoint;
+
+    // Browser's P-256 public key and auth secret, base64url as handed out by PushManager
+    @Column(name = "p256dh", nullable = false)
+    private String p256dh;
+
+    @Column(name = "auth", nullable = false)
+    private String auth;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,16 @@
+package disscount.pushSubscription.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+public class PushSubscriptionDto {
+
+    private UUID id;
+    private String endpoint;
+    private LocalDateTime createdAt;
+}
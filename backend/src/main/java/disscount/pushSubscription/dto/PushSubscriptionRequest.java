@@ -0,0 +1,19 @@
+package disscount.pushSubscription.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import lombok.Data;
+
+@Data
+public class PushSubscriptionRequest {
+
+    @NotBlank(message = "Endpoint is required")
+    @Pattern(regexp = "^https://.+", message = "Endpoint must be an https URL")
+    private String endpoint;
+
+    @NotBlank(message = "p256dh key is required")
+    private String p256dh;
+
+    @NotBlank(message = "auth secret is required")
+    private String auth;
+}
@@ -0,0 +1,12 @@
+package disscount.pushSubscription.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class VapidKeyDto {
+
+    // applicationServerKey for PushManager.subscribe; null when push is not configured
+    private String publicKey;
+}
@@ -0,0 +1,56 @@
+package disscount.pushSubscription.rest;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import disscount.pushSubscription.dto.PushSubscriptionDto;
+import disscount.pushSubscription.dto.PushSubscriptionRequest;
+import disscount.pushSubscription.dto.VapidKeyDto;
+import disscount.pushSubscription.service.PushSubscriptionService;
+import disscount.util.SecurityUtils;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/push-subscriptions")
+@RequiredArgsConstructor
+@Tag(name = "Push Subscriptions", description = "Web Push subscription management endpoints")
+public class PushSubscriptionController {
+
+    private final PushSubscriptionService pushSubscriptionService;
+
+    @Operation(summary = "Get the VAPID public key to subscribe with")
+    @GetMapping("/vapid-key")
+    public ResponseEntity<VapidKeyDto> getVapidKey() {
+        return ResponseEntity.ok(pushSubscriptionService.getVapidKey());
+    }
+
+    @Operation(summary = "Register this browser's push subscription for the current user")
+    @PostMapping
+    public ResponseEntity<PushSubscriptionDto> subscribe(@Valid @RequestBody PushSubscriptionRequest request) {
+        UUID userId = SecurityUtils.getCurrentUserId();
+        PushSubscriptionDto subscription = pushSubscriptionService.subscribe(userId, request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(subscription);
+    }
+
+    @Operation(summary = "Get current user's push subscriptions")
+    @GetMapping("/me")
+    public ResponseEntity<List<PushSubscriptionDto>> getCurrentUserSubscriptions() {
+        UUID userId = SecurityUtils.getCurrentUserId();
+        return ResponseEntity.ok(pushSubscriptionService.getUserSubscriptions(userId));
+    }
+
+    @Operation(summary = "Remove a push subscription of the current user")
+    @DeleteMapping
+    public ResponseEntity<Void> unsubscribe(@RequestParam String endpoint) {
+        UUID userId = SecurityUtils.getCurrentUserId();
+        pushSubscriptionService.unsubscribe(userId, endpoint);
+        return ResponseEntity.noContent().build();
+    }
+}
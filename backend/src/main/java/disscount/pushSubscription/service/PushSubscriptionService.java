@@ -0,0 +1,69 @@
+package disscount.pushSubscription.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import disscount.exceptions.BadRequestException;
+import disscount.pushSubscription.dao.PushSubscriptionRepository;
+import disscount.pushSubscription.domain.PushSubscription;
+import disscount.pushSubscription.dto.PushSubscriptionDto;
+import disscount.pushSubscription.dto.PushSubscriptionRequest;
+import disscount.pushSubscription.dto.VapidKeyDto;
+import disscount.user.dao.UserRepository;
+import disscount.user.domain.User;
+
+import java.util.List;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class PushSubscriptionService {
+
+    private final PushSubscriptionRepository pushSubscriptionRepository;
+    private final UserRepository userRepository;
+    private final WebPushSender webPushSender;
+
+    @Transactional(readOnly = true)
+    public VapidKeyDto getVapidKey() {
+        return VapidKeyDto.builder()
+                .publicKey(webPushSender.getPublicKey())
+                .build();
+    }
+
+    // Endpoints are per browser profile, so re-subscribing moves the endpoint to the current user
+    public PushSubscriptionDto subscribe(UUID userId, PushSubscriptionRequest request) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new BadRequestException("User not found"));
+
+        PushSubscription subscription = pushSubscriptionRepository.findByEndpoint(request.getEndpoint())
+                .orElseGet(() -> PushSubscription.builder().endpoint(request.getEndpoint()).build());
+        subscription.setUser(user);
+        subscription.setP256dh(request.getP256dh());
+        subscription.setAuth(request.getAuth());
+
+        return mapToDto(pushSubscriptionRepository.save(subscription));
+    }
+
+    @Transactional(readOnly = true)
+    public List<PushSubscriptionDto> getUserSubscriptions(UUID userId) {
+        return pushSubscriptionRepository.findByUserId(userId).stream()
+                .map(this::mapToDto)
+                .toList();
+    }
+
+    public void unsubscribe(UUID userId, String endpoint) {
+        if (pushSubscriptionRepository.deleteByEndpointAndUserId(endpoint, userId) == 0) {
+            throw new BadRequestException("Push subscription not found");
+        }
+    }
+
+    private PushSubscriptionDto mapToDto(PushSubscription subscription) {
+        return PushSubscriptionDto.builder()
+                .id(subscription.getId())
+                .endpoint(subscription.getEndpoint())
+                .createdAt(subscription.getCreatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,193 @@
+package disscount.pushSubscription.service;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyAgreement;
+import javax.crypto.Mac;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayOutputStream;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.SecureRandom;
+import java.security.Signature;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPrivateKeySpec;
+import java.security.spec.ECPublicKeySpec;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Web Push message encryption (RFC 8291, aes128gcm) and VAPID signing (RFC 8292) on plain
+ * JDK crypto. Keys travel as base64url: public keys as 65-byte uncompressed P-256 points,
+ * the VAPID private key as its 32-byte scalar.
+ */
+public final class WebPushCrypto {
+
+    private static final int RECORD_SIZE = 4096;
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final ECParameterSpec P256 = p256();
+
+    private WebPushCrypto() {
+    }
+
+    /**
+     * Encrypt payload for one subscription; the result is the complete request body.
+     */
+    public static byte[] encrypt(byte[] payload, String p256dh, String auth) throws GeneralSecurityException {
+        byte[] uaPublic = decode(p256dh);
+        byte[] authSecret = decode(auth);
+
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(P256);
+        KeyPair ephemeral = generator.generateKeyPair();
+        byte[] asPublic = encodePoint((ECPublicKey) ephemeral.getPublic());
+
+        KeyAgreement agreement = KeyAgreement.getInstance("ECDH");
+        agreement.init(ephemeral.getPrivate());
+        agreement.doPhase(toPublicKey(uaPublic), true);
+        byte[] ecdhSecret = agreement.generateSecret();
+
+        byte[] keyInfo = concat("WebPush: info\0".getBytes(StandardCharsets.US_ASCII), uaPublic, asPublic);
+        byte[] ikm = hkdf(authSecret, ecdhSecret, keyInfo, 32);
+
+        byte[] salt = new byte[16];
+        RANDOM.nextBytes(salt);
+        byte[] cek = hkdf(salt, ikm, "Content-Encoding: aes128gcm\0".getBytes(StandardCharsets.US_ASCII), 16);
+        byte[] nonce = hkdf(salt, ikm, "Content-Encoding: nonce\0".getBytes(StandardCharsets.US_ASCII), 12);
+
+        // Single record: payload followed by the 0x02 last-record delimiter
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(cek, "AES"), new GCMParameterSpec(128, nonce));
+        byte[] ciphertext = cipher.doFinal(concat(payload, new byte[] {2}));
+
+        return ByteBuffer.allocate(16 + 4 + 1 + asPublic.length + ciphertext.length)
+                .put(salt)
+                .putInt(RECORD_SIZE)
+                .put((byte) asPublic.length)
+                .put(asPublic)
+                .put(ciphertext)
+                .array();
+    }
+
+    /**
+     * Parses the VAPID private key and checks that it signs what the public key verifies,
+     * so a mismatched or malformed pair is caught once instead of on every push.
+     * @throws GeneralSecurityException if either key is malformed or they do not belong together
+     */
+    public static ECPrivateKey vapidPrivateKey(String publicKey, String privateKey) throws GeneralSecurityException {
+        ECPrivateKey key;
+        ECPublicKey verifyingKey;
+        try {
+            byte[] scalar = decode(privateKey);
+            if (scalar.length != 32) {
+                throw new GeneralSecurityException("Expected a 32-byte P-256 private key, got " + scalar.length + " bytes");
+            }
+            key = toPrivateKey(scalar);
+            verifyingKey = toPublicKey(decode(publicKey));
+        } catch (IllegalArgumentException e) {
+            throw new GeneralSecurityException("VAPID keys are not base64url", e);
+        }
+
+        byte[] probe = "vapid".getBytes(StandardCharsets.US_ASCII);
+        Signature signer = Signature.getInstance("SHA256withECDSAinP1363Format");
+        signer.initSign(key);
+        signer.update(probe);
+        Signature verifier = Signature.getInstance("SHA256withECDSAinP1363Format");
+        verifier.initVerify(verifyingKey);
+        verifier.update(probe);
+        if (!verifier.verify(signer.sign())) {
+            throw new GeneralSecurityException("VAPID public and private keys do not match");
+        }
+        return key;
+    }
+
+    /**
+     * Authorization header value for a push service origin, valid for expiresAtEpochSecond.
+     */
+    public static String vapidAuthorization(String audience, String subject, long expiresAtEpochSecond,
+                                            String publicKey, ECPrivateKey privateKey) throws GeneralSecurityException {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String header = encoder.encodeToString("{\"typ\":\"JWT\",\"alg\":\"ES256\"}".getBytes(StandardCharsets.UTF_8));
+        String claims = encoder.encodeToString(("{\"aud\":\"" + audience + "\",\"exp\":" + expiresAtEpochSecond
+                + ",\"sub\":\"" + subject + "\"}").getBytes(StandardCharsets.UTF_8));
+        String signingInput = header + "." + claims;
+
+        Signature signer = Signature.getInstance("SHA256withECDSAinP1363Format");
+        signer.initSign(privateKey);
+        signer.update(signingInput.getBytes(StandardCharsets.US_ASCII));
+
+        return "vapid t=" + signingInput + "." + encoder.encodeToString(signer.sign()) + ", k=" + publicKey;
+    }
+
+    static byte[] hkdf(byte[] salt, byte[] ikm, byte[] info, int length) throws GeneralSecurityException {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(salt, "HmacSHA256"));
+        byte[] prk = mac.doFinal(ikm);
+
+        mac.init(new SecretKeySpec(prk, "HmacSHA256"));
+        mac.update(info);
+        mac.update((byte) 1);
+        return Arrays.copyOf(mac.doFinal(), length);
+    }
+
+    static ECPublicKey toPublicKey(byte[] point) throws GeneralSecurityException {
+        if (point.length != 65 || point[0] != 4) {
+            throw new GeneralSecurityException("Expected an uncompressed P-256 point");
+        }
+        BigInteger x = new BigInteger(1, Arrays.copyOfRange(point, 1, 33));
+        BigInteger y = new BigInteger(1, Arrays.copyOfRange(point, 33, 65));
+        return (ECPublicKey) KeyFactory.getInstance("EC").generatePublic(new ECPublicKeySpec(new ECPoint(x, y), P256));
+    }
+
+    static ECPrivateKey toPrivateKey(byte[] scalar) throws GeneralSecurityException {
+        return (ECPrivateKey) KeyFactory.getInstance("EC")
+                .generatePrivate(new ECPrivateKeySpec(new BigInteger(1, scalar), P256));
+    }
+
+    static byte[] encodePoint(ECPublicKey key) {
+        byte[] point = new byte[65];
+        point[0] = 4;
+        copyUnsigned(key.getW().getAffineX(), point, 1);
+        copyUnsigned(key.getW().getAffineY(), point, 33);
+        return point;
+    }
+
+    private static void copyUnsigned(BigInteger value, byte[] target, int offset) {
+        byte[] bytes = value.toByteArray();
+        int start = Math.max(0, bytes.length - 32);
+        int length = bytes.length - start;
+        System.arraycopy(bytes, start, target, offset + 32 - length, length);
+    }
+
+    private static byte[] decode(String base64Url) {
+        return Base64.getUrlDecoder().decode(base64Url.replace('+', '-').replace('/', '_').replace("=", ""));
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] part : parts) {
+            out.writeBytes(part);
+        }
+        return out.toByteArray();
+    }
+
+    private static ECParameterSpec p256() {
+        try {
+            AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+            parameters.init(new ECGenParameterSpec("secp256r1"));
+            return parameters.getParameterSpec(ECParameterSpec.class);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("P-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package disscount.pushSubscription.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.GeneralSecurityException;
+import java.security.interfaces.ECPrivateKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+
+/**
+ * Sends one encrypted message to one push endpoint. Blocking by design: callers fan out on
+ * virtual threads, and the shared HttpClient keeps connections to each push service alive.
+ * VAPID headers are cached per push service origin until shortly before they expire.
+ * <p>
+ * The VAPID key pair is parsed and checked once here. A malformed or mismatched pair
+ * leaves push disabled with an error in the log; it must never look like the
+ * subscriptions themselves are broken, or every one of them would be pruned.
+ */
+@Slf4j
+@Component
+public class WebPushSender {
+
+    public enum Result {
+        DELIVERED,
+        // 404/410: the browser unsubscribed, the endpoint must be deleted
+        GONE,
+        FAILED
+    }
+
+    private static final Duration VAPID_TTL = Duration.ofHours(12);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    private static final int MESSAGE_TTL_SECONDS = 24 * 60 * 60;
+
+    private final String publicKey;
+    // Null when push is not configured or the configured pair is invalid
+    private final ECPrivateKey privateKey;
+    private final String subject;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    private final Map<String, CachedHeader> vapidByOrigin = new ConcurrentHashMap<>();
+
+    public WebPushSender(
+            @Value("${notification.push.vapid-public-key}") String publicKey,
+            @Value("${notification.push.vapid-private-key}") String privateKey,
+            @Value("${notification.push.subject}") String subject) {
+        this.publicKey = publicKey;
+        this.privateKey = parsePrivateKey(publicKey, privateKey);
+        this.subject = subject;
+    }
+
+    public boolean isConfigured() {
+        return privateKey != null;
+    }
+
+    public String getPublicKey() {
+        return isConfigured() ? publicKey : null;
+    }
+
+    public Result send(String endpoint, String p256dh, String auth, byte[] payload) {
+        if (!isConfigured()) {
+            return Result.FAILED;
+        }
+
+        URI uri;
+        byte[] body;
+        try {
+            uri = URI.create(endpoint);
+            if (!"https".equals(uri.getScheme()) && !"http".equals(uri.getScheme()) || uri.getHost() == null) {
+                throw new IllegalArgumentException("Not an HTTP(S) URL: " + endpoint);
+            }
+            body = WebPushCrypto.encrypt(payload, p256dh, auth);
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            // Malformed subscription keys or endpoint can never succeed
+            log.warn("Invalid push subscription: {}", e.getMessage());
+            return Result.GONE;
+        }
+
+        String authorization;
+        try {
+            authorization = vapidHeader(uri);
+        } catch (GeneralSecurityException e) {
+            // Our own key, not the subscription's fault
+            log.error("VAPID signing failed: {}", e.getMessage());
+            return Result.FAILED;
+        }
+
+        try {
+            HttpRequest request = HttpRequest.newBuilder(uri)
+                    .timeout(REQUEST_TIMEOUT)
+                    .header("Authorization", authorization)
+                    .header("Content-Encoding", "aes128gcm")
+                    .header("Content-Type", "application/octet-stream")
+                    .header("TTL", String.valueOf(MESSAGE_TTL_SECONDS))
+                    .header("Urgency", "normal")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                    .build();
+
+            int status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            if (status == 404 || status == 410) {
+                return Result.GONE;
+            }
+            if (status >= 200 && status < 300) {
+                return Result.DELIVERED;
+            }
+            log.warn("Push to {} rejected with HTTP {}", uri.getHost(), status);
+            return Result.FAILED;
+        } catch (IOException e) {
+            log.warn("Push delivery failed: {}", e.getMessage());
+            return Result.FAILED;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Result.FAILED;
+        }
+    }
+
+    private static ECPrivateKey parsePrivateKey(String publicKey, String privateKey) {
+        if (publicKey.isBlank() || privateKey.isBlank()) {
+            return null;
+        }
+        try {
+            return WebPushCrypto.vapidPrivateKey(publicKey, privateKey);
+        } catch (GeneralSecurityException e) {
+            log.error("Web Push disabled: invalid VAPID keys ({}); expected base64url P-256 keys, "
+                    + "the private key as its raw 32-byte scalar", e.getMessage());
+            return null;
+        }
+    }
+
+    private String vapidHeader(URI endpoint) throws GeneralSecurityException {
+        String origin = endpoint.getScheme() + "://" + endpoint.getAuthority();
+        Instant now = Instant.now();
+
+        CachedHeader cached = vapidByOrigin.get(origin);
+        if (cached == null || now.isAfter(cached.refreshAt())) {
+            Instant expiresAt = now.plus(VAPID_TTL);
+            String header = WebPushCrypto.vapidAuthorization(origin, subject, expiresAt.getEpochSecond(), publicKey, privateKey);
+            cached = new CachedHeader(header, expiresAt.minus(Duration.ofHours(1)));
+            vapidByOrigin.put(origin, cached);
+        }
+        return cached.header();
+    }
+
+    private record CachedHeader(String header, Instant refreshAt) {
+    }
+}
@@ -0,0 +1,20 @@
+package disscount.shoppingList.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Data
+@Builder
+public class BasketOptimizationDto {
+
+    private UUID shoppingListId;
+    private LocalDate priceDate;
+    private int itemCount;
+    private int storesConsidered;
+    private BasketPlanDto singleStore;
+    // null unless some pair of stores beats singleStore on (missing items, total)
+    private BasketPlanDto twoStoreSplit;
+}
@@ -0,0 +1,19 @@
+package disscount.shoppingList.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+public class BasketPlanDto {
+
+    private List<BasketStoreDto> stores;
+    private BigDecimal totalCost;
+    // EANs none of the plan's stores sell that day; they are excluded from totalCost
+    private List<String> missingEans;
+    // Saved versus the items' stored avgPrice (covered items only); null when no item has one
+    private BigDecimal savings;
+}
@@ -0,0 +1,20 @@
+package disscount.shoppingList.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+public class BasketStoreDto {
+
+    private String chainCode;
+    private String storeCode;
+    private String address;
+    private String city;
+    private BigDecimal subtotal;
+    // EANs to buy in this store
+    private List<String> eans;
+}
@@ -7,8 +7,10 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import disscount.shoppingList.dto.BasketOptimizationDto;
 import disscount.shoppingList.dto.ShoppingListDto;
 import disscount.shoppingList.dto.ShoppingListRequest;
+import disscount.shoppingList.service.BasketOptimizerService;
 import disscount.shoppingList.service.ShoppingListService;
 import disscount.shoppingListItem.dto.ShoppingListItemDto;
 import disscount.util.SecurityUtils;
@@ -24,6 +26,7 @@ import java.util.stream.Collectors;
 public class ShoppingListController {
 
     private final ShoppingListService shoppingListService;
+    private final BasketOptimizerService basketOptimizerService;
 
     @Operation(summary = "Create a new shopping list")
     @PostMapping
@@ -68,6 +71,14 @@ public class ShoppingListController {
         return ResponseEntity.noContent().build();
     }
     
+    @Operation(summary = "Find the cheapest single store or two-store split for a shopping list")
+    @PostMapping("/{id}/optimize")
+    public ResponseEntity<BasketOptimizationDto> optimizeShoppingList(@PathVariable UUID id) {
+        UUID userId = SecurityUtils.getCurrentUserId();
+        BasketOptimizationDto optimization = basketOptimizerService.optimize(id, userId);
+        return ResponseEntity.ok(optimization);
+    }
+
     // reccomendations for watchlist
     @Operation(summary = "Get all items from user's active shopping lists")
     @GetMapping("/items")
@@ -0,0 +1,321 @@
+package disscount.shoppingList.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import disscount.exceptions.BadRequestException;
+import disscount.exceptions.UnauthorizedException;
+import disscount.pinnedPlace.dao.PinnedPlaceRepository;
+import disscount.pinnedStore.dao.PinnedStoreRepository;
+import disscount.pinnedStore.domain.PinnedStore;
+import disscount.price.dao.StorePriceRepository;
+import disscount.price.dao.StoreRepository;
+import disscount.price.domain.Store;
+import disscount.price.domain.StorePrice;
+import disscount.shoppingList.dao.ShoppingListRepository;
+import disscount.shoppingList.domain.ShoppingList;
+import disscount.shoppingList.dto.BasketOptimizationDto;
+import disscount.shoppingList.dto.BasketPlanDto;
+import disscount.shoppingList.dto.BasketStoreDto;
+import disscount.shoppingListItem.dao.ShoppingListItemRepository;
+import disscount.shoppingListItem.domain.ShoppingListItem;
+import disscount.user.dao.UserRepository;
+import disscount.user.domain.User;
+import disscount.util.StoreUtils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Finds where a shopping list is cheapest among the user's pinned chains/places.
+ * Prices for the latest day are loaded once into a dense store x item cost matrix
+ * (NaN = not sold there); every single store and every store pair is then scored
+ * in parallel, preferring fewer missing items first and the lower total second. A
+ * two-store split is only offered when it strictly beats the best single store.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class BasketOptimizerService {
+
+    private static final Comparator<Candidate> BEST_FIRST = Comparator
+            .comparingInt(Candidate::missing)
+            .thenComparingDouble(Candidate::total);
+
+    private final ShoppingListRepository shoppingListRepository;
+    private final ShoppingListItemRepository shoppingListItemRepository;
+    private final UserRepository userRepository;
+    private final PinnedStoreRepository pinnedStoreRepository;
+    private final PinnedPlaceRepository pinnedPlaceRepository;
+    private final StoreRepository storeRepository;
+    private final StorePriceRepository storePriceRepository;
+
+    public BasketOptimizationDto optimize(UUID listId, UUID userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new UnauthorizedException("User not found"));
+
+        // Same access rule as reading the list: owner, or anyone if the list is public
+        ShoppingList shoppingList = shoppingListRepository.findActiveByIdAndOwner(listId, user)
+                .orElseGet(() -> shoppingListRepository.findActiveById(listId)
+                        .filter(list -> list.getIsPublic())
+                        .orElseThrow(() -> new BadRequestException("Shopping list not found or access denied")));
+
+        // Checked items are already in the cart; duplicate EANs are merged into one line
+        Map<String, BasketItem> itemsByEan = new LinkedHashMap<>();
+        for (ShoppingListItem item : shoppingListItemRepository.findActiveByShoppingList(shoppingList)) {
+            if (Boolean.TRUE.equals(item.getIsChecked())) continue;
+            BasketItem basketItem = new BasketItem(item.getEan(), item.getAmount() != null ? item.getAmount() : 1, item.getAvgPrice());
+            itemsByEan.merge(item.getEan(), basketItem, BasketItem::merge);
+        }
+
+        if (itemsByEan.isEmpty()) {
+            throw new BadRequestException("Shopping list has no unchecked items");
+        }
+
+        LocalDate priceDate = storePriceRepository.findLatestPriceDate()
+                .orElseThrow(() -> new BadRequestException("No price data available"));
+
+        List<BasketItem> items = new ArrayList<>(itemsByEan.values());
+        PriceMatrix matrix = buildMatrix(priceDate, items, findCandidateStores(userId));
+
+        Candidate bestSingle = IntStream.range(0, matrix.storeCount())
+                .parallel()
+                .mapToObj(matrix::scoreSingle)
+                .min(BEST_FIRST)
+                .orElse(null);
+
+        Candidate bestPair = IntStream.range(0, matrix.storeCount())
+                .parallel()
+                .mapToObj(matrix::bestPairFrom)
+                .filter(Objects::nonNull)
+                .min(BEST_FIRST)
+                .orElse(null);
+        // A pair no better than one store would just send the user to a second shop for nothing
+        if (bestPair != null && BEST_FIRST.compare(bestPair, bestSingle) >= 0) {
+            bestPair = null;
+        }
+
+        return BasketOptimizationDto.builder()
+                .shoppingListId(shoppingList.getId())
+                .priceDate(priceDate)
+                .itemCount(items.size())
+                .storesConsidered(matrix.storeCount())
+                .singleStore(bestSingle != null ? toPlan(bestSingle, matrix, items) : null)
+                .twoStoreSplit(bestPair != null ? toPlan(bestPair, matrix, items) : null)
+                .build();
+    }
+
+    private List<Store> findCandidateStores(UUID userId) {
+        Set<String> chainCodes = pinnedStoreRepository.findByUserId(userId)
+                .stream()
+                .map(PinnedStore::getStoreApiId)
+                .collect(Collectors.toSet());
+
+        // placeApiId is the city name as shown in the store list
+        Set<String> cities = pinnedPlaceRepository.findByUserId(userId)
+                .stream()
+                .map(place -> place.getPlaceApiId().toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+
+        if (chainCodes.isEmpty() && cities.isEmpty()) {
+            throw new BadRequestException("Pin at least one store or place to optimize a list");
+        }
+
+        if (chainCodes.isEmpty()) {
+            return storeRepository.findByCityIn(cities);
+        }
+
+        return storeRepository.findByChainCodeIn(chainCodes)
+                .stream()
+                .filter(store -> cities.isEmpty()
+                        || (store.getCity() != null && cities.contains(store.getCity().toLowerCase(Locale.ROOT))))
+                .toList();
+    }
+
+    private PriceMatrix buildMatrix(LocalDate priceDate, List<BasketItem> items, List<Store> candidates) {
+        Map<String, Store> storesByKey = new HashMap<>();
+        for (Store store : candidates) {
+            storesByKey.put(StoreUtils.key(store.getChainCode(), store.getCode()), store);
+        }
+
+        Map<String, Integer> itemIndex = new HashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            itemIndex.put(items.get(i).ean(), i);
+        }
+
+        Set<String> chainCodes = candidates.stream().map(Store::getChainCode).collect(Collectors.toSet());
+        List<StorePrice> prices = chainCodes.isEmpty()
+                ? List.of()
+                : storePriceRepository.findByDateAndEansAndChains(priceDate, itemIndex.keySet(), chainCodes);
+
+        // Only stores selling at least one item get a matrix row
+        Map<String, Integer> storeIndex = new HashMap<>();
+        List<Store> stores = new ArrayList<>();
+        for (StorePrice price : prices) {
+            String key = StoreUtils.key(price.getChainCode(), price.getStoreCode());
+            Store store = storesByKey.get(key);
+            if (store != null && !storeIndex.containsKey(key)) {
+                storeIndex.put(key, stores.size());
+                stores.add(store);
+            }
+        }
+
+        int n = items.size();
+        double[] costs = new double[stores.size() * n];
+        Arrays.fill(costs, Double.NaN);
+        for (StorePrice price : prices) {
+            Integer s = storeIndex.get(StoreUtils.key(price.getChainCode(), price.getStoreCode()));
+            if (s == null) continue;
+            int i = itemIndex.get(price.getEan());
+            costs[s * n + i] = price.getPrice().doubleValue() * items.get(i).amount();
+        }
+
+        return new PriceMatrix(stores, n, costs);
+    }
+
+    private BasketPlanDto toPlan(Candidate candidate, PriceMatrix matrix, List<BasketItem> items) {
+        int[] planStores = candidate.second() < 0
+                ? new int[]{candidate.first()}
+                : new int[]{candidate.first(), candidate.second()};
+
+        double[] subtotals = new double[planStores.length];
+        List<List<String>> eansPerStore = new ArrayList<>();
+        for (int ignored : planStores) eansPerStore.add(new ArrayList<>());
+        List<String> missingEans = new ArrayList<>();
+        double savings = 0;
+        boolean hasBaseline = false;
+
+        for (int i = 0; i < items.size(); i++) {
+            int chosen = -1;
+            double cost = Double.NaN;
+            for (int p = 0; p < planStores.length; p++) {
+                double c = matrix.cost(planStores[p], i);
+                if (!Double.isNaN(c) && (Double.isNaN(cost) || c < cost)) {
+                    cost = c;
+                    chosen = p;
+                }
+            }
+
+            BasketItem item = items.get(i);
+            if (chosen < 0) {
+                missingEans.add(item.ean());
+                continue;
+            }
+
+            subtotals[chosen] += cost;
+            eansPerStore.get(chosen).add(item.ean());
+            if (item.avgPrice() != null) {
+                savings += item.avgPrice().doubleValue() * item.amount() - cost;
+                hasBaseline = true;
+            }
+        }
+
+        List<BasketStoreDto> storeDtos = new ArrayList<>();
+        for (int p = 0; p < planStores.length; p++) {
+            if (eansPerStore.get(p).isEmpty()) continue;
+            Store store = matrix.stores().get(planStores[p]);
+            storeDtos.add(BasketStoreDto.builder()
+                    .chainCode(store.getChainCode())
+                    .storeCode(store.getCode())
+                    .address(store.getAddress())
+                    .city(store.getCity())
+                    .subtotal(money(subtotals[p]))
+                    .eans(eansPerStore.get(p))
+                    .build());
+        }
+
+        return BasketPlanDto.builder()
+                .stores(storeDtos)
+                .totalCost(money(candidate.total()))
+                .missingEans(missingEans)
+                .savings(hasBaseline ? money(savings) : null)
+                .build();
+    }
+
+    private static BigDecimal money(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private record BasketItem(String ean, int amount, BigDecimal avgPrice) {
+
+        BasketItem merge(BasketItem other) {
+            return new BasketItem(ean, amount + other.amount, avgPrice != null ? avgPrice : other.avgPrice);
+        }
+    }
+
+    // second = -1 for single-store plans
+    private record Candidate(int first, int second, int missing, double total) {
+    }
+
+    /** Row-major store x item cost matrix; a row is one store's line costs for the whole list. */
+    private record PriceMatrix(List<Store> stores, int itemCount, double[] costs) {
+
+        int storeCount() {
+            return stores.size();
+        }
+
+        double cost(int store, int item) {
+            return costs[store * itemCount + item];
+        }
+
+        Candidate scoreSingle(int store) {
+            int base = store * itemCount;
+            int missing = 0;
+            double total = 0;
+            for (int i = 0; i < itemCount; i++) {
+                double c = costs[base + i];
+                if (Double.isNaN(c)) {
+                    missing++;
+                } else {
+                    total += c;
+                }
+            }
+            return new Candidate(store, -1, missing, total);
+        }
+
+        /** Best partner b > a for store a, so every unordered pair is scored exactly once. */
+        Candidate bestPairFrom(int a) {
+            Candidate best = null;
+            int baseA = a * itemCount;
+            for (int b = a + 1; b < stores.size(); b++) {
+                int baseB = b * itemCount;
+                int missing = 0;
+                double total = 0;
+                for (int i = 0; i < itemCount; i++) {
+                    double ca = costs[baseA + i];
+                    double cb = costs[baseB + i];
+                    if (Double.isNaN(ca)) {
+                        if (Double.isNaN(cb)) {
+                            missing++;
+                        } else {
+                            total += cb;
+                        }
+                    } else {
+                        total += Double.isNaN(cb) ? ca : Math.min(ca, cb);
+                    }
+                }
+
+                Candidate candidate = new Candidate(a, b, missing, total);
+                if (best == null || BEST_FIRST.compare(candidate, best) < 0) {
+                    best = candidate;
+                }
+            }
+            return best;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package disscount.shoppingListItem.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import disscount.price.dao.StorePriceRepository;
+import disscount.price.service.PriceIngestedEvent;
+
+import java.sql.Array;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Refreshes avgPrice / storePrice of unchecked items in active shopping lists from the
+ * latest price day, so long-lived lists stop showing the prices from when items were added.
+ * <p>
+ * Work is chunked by distinct EAN: each chunk prices its EANs once per chain in a CTE and
+ * updates every matching item with one set-based UPDATE, committed on its own. The UPDATE
+ * is native on purpose: it bypasses @PreUpdate so updatedAt keeps meaning "last edited by
+ * a user". Checked items are left alone, their prices record what was actually paid.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ShoppingListItemRepricingService {
+
+    private static final int CHUNK_SIZE = 500;
+
+    private static final String ACTIVE_EANS_SQL = """
+            SELECT DISTINCT sli.ean
+            FROM shopping_list_item sli
+            JOIN shopping_list sl ON sl.id = sli.shopping_list_id
+            WHERE sli.deleted_at IS NULL AND sli.is_checked = false AND sl.deleted_at IS NULL
+            ORDER BY sli.ean
+            """;
+
+    // storePrice mirrors the frontend: the chain's average price; avgPrice averages the chains
+    private static final String REPRICE_SQL = """
+            WITH chain_price AS (
+                SELECT ean, chain_code, ROUND(AVG(price), 4) AS price
+                FROM store_price
+                WHERE price_date = ? AND ean = ANY(?)
+                GROUP BY ean, chain_code
+            ), product_price AS (
+                SELECT ean, ROUND(AVG(price), 4) AS price
+                FROM chain_price
+                GROUP BY ean
+            )
+            UPDATE shopping_list_item sli
+            SET avg_price = pp.price,
+                store_price = COALESCE(
+                    (SELECT cp.price FROM chain_price cp WHERE cp.ean = sli.ean AND cp.chain_code = sli.chain_code),
+                    sli.store_price)
+            FROM product_price pp, shopping_list sl
+            WHERE sli.ean = pp.ean
+              AND sl.id = sli.shopping_list_id
+              AND sl.deleted_at IS NULL
+              AND sli.deleted_at IS NULL
+              AND sli.is_checked = false
+              AND (sli.avg_price IS DISTINCT FROM pp.price
+                   OR sli.store_price IS DISTINCT FROM COALESCE(
+                       (SELECT cp.price FROM chain_price cp WHERE cp.ean = sli.ean AND cp.chain_code = sli.chain_code),
+                       sli.store_price))
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StorePriceRepository storePriceRepository;
+
+    @EventListener
+    public void onPriceIngested(PriceIngestedEvent event) {
+        // Replays of older days must not roll list prices back
+        boolean isLatest = storePriceRepository.findLatestPriceDate()
+                .map(latest -> !event.priceDate().isBefore(latest))
+                .orElse(false);
+        if (isLatest) {
+            reprice(event.priceDate());
+        }
+    }
+
+    public int reprice(LocalDate priceDate) {
+        List<String> eans = jdbcTemplate.queryForList(ACTIVE_EANS_SQL, String.class);
+
+        int updated = 0;
+        for (int from = 0; from < eans.size(); from += CHUNK_SIZE) {
+            String[] chunk = eans.subList(from, Math.min(from + CHUNK_SIZE, eans.size())).toArray(new String[0]);
+            Integer chunkUpdated = transactionTemplate.execute(status -> jdbcTemplate.update(REPRICE_SQL, ps -> {
+                Array eanArray = ps.getConnection().createArrayOf("varchar", chunk);
+                ps.setObject(1, priceDate);
+                ps.setArray(2, eanArray);
+            }));
+            updated += chunkUpdated != null ? chunkUpdated : 0;
+        }
+
+        log.info("Repriced {} shopping list items across {} EANs for {}", updated, eans.size(), priceDate);
+        return updated;
+    }
+}
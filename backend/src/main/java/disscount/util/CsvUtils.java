@@ -0,0 +1,75 @@
+package disscount.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+public class CsvUtils {
+
+    /**
+     * Stream a header-first CSV file row by row, handing each row to the consumer as a
+     * column-name -> value map. Quoted fields (with "" escapes) are supported; quoted
+     * line breaks are not, which the price archive never produces.
+     */
+    public static void forEachRow(Path file, Consumer<Map<String, String>> consumer) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String headerLine = reader.readLine();
+            if (headerLine == null) {
+                return;
+            }
+
+            List<String> header = parseLine(stripBom(headerLine));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) continue;
+
+                List<String> values = parseLine(line);
+                Map<String, String> row = new HashMap<>(header.size() * 2);
+                for (int i = 0; i < header.size(); i++) {
+                    row.put(header.get(i), i < values.size() ? values.get(i) : "");
+                }
+                consumer.accept(row);
+            }
+        }
+    }
+
+    public static List<String> parseLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString().trim());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString().trim());
+        return values;
+    }
+
+    private static String stripBom(String line) {
+        return line.startsWith("\uFEFF") ? line.substring(1) : line;
+    }
+}
@@ -0,0 +1,78 @@
+package disscount.util;
+
+import disscount.exceptions.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+public class CursorUtils {
+
+    /**
+     * Position of the last row of a keyset page, ordered by (createdAt DESC, id DESC).
+     */
+    public record Cursor(LocalDateTime createdAt, UUID id) {
+    }
+
+    /**
+     * Opaque, URL-safe cursor for the row at (createdAt, id).
+     */
+    public static String encode(LocalDateTime createdAt, UUID id) {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor produced by {@link #encode}; null or blank means "first page".
+     * @throws BadRequestException if the cursor was not produced by this class
+     */
+    public static Cursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new Cursor(LocalDateTime.parse(raw.substring(0, separator)), UUID.fromString(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid cursor", e);
+        }
+    }
+
+    /**
+     * Position of the last row of a page ordered by a precomputed rank, valid only for
+     * the data of priceDate.
+     */
+    public record RankCursor(LocalDate priceDate, int rank) {
+    }
+
+    /**
+     * Opaque, URL-safe cursor for the row at rank within the ranking of priceDate.
+     */
+    public static String encodeRank(LocalDate priceDate, int rank) {
+        String raw = priceDate + "|" + rank;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor produced by {@link #encodeRank}; null or blank means "first page".
+     * @throws BadRequestException if the cursor was not produced by this class
+     */
+    public static RankCursor decodeRank(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new RankCursor(LocalDate.parse(raw.substring(0, separator)), Integer.parseInt(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package disscount.util;
+
+public class ETagUtils {
+
+    /**
+     * Whether an If-None-Match header matches etag (a quoted tag): the header is "*" or a
+     * list of tags, compared weakly, so a W/ tag from a compressing proxy still matches
+     * (RFC 9110, section 13.1.2).
+     */
+    public static boolean matchesAny(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
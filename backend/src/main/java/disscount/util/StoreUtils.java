@@ -0,0 +1,11 @@
+package disscount.util;
+
+public class StoreUtils {
+
+    /**
+     * Map key for a store: store codes are only unique within their chain.
+     */
+    public static String key(String chainCode, String storeCode) {
+        return chainCode + '|' + storeCode;
+    }
+}
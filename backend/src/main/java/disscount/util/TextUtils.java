@@ -0,0 +1,26 @@
+package disscount.util;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+public class TextUtils {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    /**
+     * Lower-case and strip diacritics so "Čokolada", "cokolada" and "ČOKOLADA" compare equal.
+     * đ/Đ has no Unicode decomposition, so it is mapped to "d" explicitly.
+     */
+    public static String fold(String text) {
+        if (text == null) {
+            return "";
+        }
+
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("")
+                .replace('đ', 'd')
+                .replace('Đ', 'd')
+                .toLowerCase(Locale.ROOT);
+    }
+}
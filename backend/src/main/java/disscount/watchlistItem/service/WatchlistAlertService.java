@@ -0,0 +1,110 @@
+package disscount.watchlistItem.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import disscount.price.dao.StorePriceRepository;
+import disscount.price.service.PriceChangesDetectedEvent;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Checks watchlist thresholds against each new price day and stages the hits as pending
+ * alerts, which NotificationDigestService later merges into one digest per user.
+ * <p>
+ * Mirrors the watchlist screen: discount = average of the chains' average prices minus
+ * the cheapest chain's minimum. Only the user's pinned chains count if they have any.
+ * ABSOLUTE thresholds are euros of discount, PERCENTAGE thresholds percent of the average.
+ * Only products whose price dropped or appeared today are checked, only for the newest
+ * price day, and each watch fires at most once per day. Each alert carries the product's lowest price of the last 30 days
+ * (from price_stats) so the discount can be labelled against it.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WatchlistAlertService {
+
+    private static final String STAGE_ALERTS_SQL = """
+            WITH changed AS (
+                SELECT DISTINCT ean FROM price_change
+                WHERE price_date = ? AND change_type IN ('DOWN', 'NEW')
+            ), chain_price AS (
+                SELECT sp.ean, sp.chain_code, MIN(sp.price) AS min_price, AVG(sp.price) AS avg_price
+                FROM store_price sp
+                JOIN changed c ON c.ean = sp.ean
+                WHERE sp.price_date = ?
+                GROUP BY sp.ean, sp.chain_code
+            ), product_price AS (
+                SELECT ean, AVG(avg_price) AS avg_price FROM chain_price GROUP BY ean
+            ), best AS (
+                SELECT DISTINCT ON (w.id)
+                       w.id AS watch_id, w.user_id, w.product_api_id, w.watch_type, w.threshold_value,
+                       cp.chain_code, cp.min_price, pp.avg_price,
+                       pp.avg_price - cp.min_price AS discount
+                FROM watchlist_item w
+                JOIN chain_price cp ON cp.ean = w.product_api_id
+                JOIN product_price pp ON pp.ean = w.product_api_id
+                WHERE w.deleted_at IS NULL
+                  AND (w.last_notified_at IS NULL OR w.last_notified_at < ?)
+                  -- Pinned chains match case-insensitively, as in the deal feed
+                  AND (NOT EXISTS (SELECT 1 FROM pinned_store ps WHERE ps.user_id = w.user_id)
+                       OR EXISTS (SELECT 1 FROM pinned_store ps
+                                  WHERE ps.user_id = w.user_id AND LOWER(ps.store_api_id) = LOWER(cp.chain_code)))
+                ORDER BY w.id, cp.min_price
+            ), hits AS (
+                SELECT b.* FROM best b
+                WHERE b.discount > 0
+                  AND ((b.watch_type = 'ABSOLUTE' AND b.discount >= b.threshold_value)
+                    OR (b.watch_type = 'PERCENTAGE' AND b.discount / b.avg_price * 100 >= b.threshold_value))
+            ), staged AS (
+                INSERT INTO pending_alert (id, user_id, product_api_id, entry, created_at)
+                SELECT gen_random_uuid(), h.user_id, h.product_api_id,
+                       jsonb_build_object(
+                           'productApiId', h.product_api_id,
+                           'productName', p.name,
+                           'chainCode', h.chain_code,
+                           'price', h.min_price,
+                           'averagePrice', ROUND(h.avg_price, 2),
+                           'discountAmount', ROUND(h.discount, 2),
+                           'discountPercentage', ROUND(h.discount / h.avg_price * 100, 1),
+                           'lowestPrice30', st.minimum_30),
+                       ?
+                FROM hits h
+                LEFT JOIN product p ON p.ean = h.product_api_id
+                LEFT JOIN price_stats st ON st.ean = h.product_api_id AND st.price_date = ?
+            )
+            UPDATE watchlist_item w SET last_notified_at = ?
+            FROM hits h
+            WHERE w.id = h.watch_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StorePriceRepository storePriceRepository;
+
+    @EventListener
+    public void onPriceChangesDetected(PriceChangesDetectedEvent event) {
+        // Replayed diffs and re-ingests of past days describe prices that may no longer apply
+        LocalDate latestPrices = storePriceRepository.findLatestPriceDate().orElse(null);
+        if (event.priceDate().equals(latestPrices)) {
+            stageAlerts(event.priceDate());
+        }
+    }
+
+    public int stageAlerts(LocalDate priceDate) {
+        // Native SQL on purpose: lastNotifiedAt is bookkeeping and must not bump updatedAt
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Integer staged = transactionTemplate.execute(status -> jdbcTemplate.update(STAGE_ALERTS_SQL,
+                priceDate, priceDate, Timestamp.valueOf(priceDate.atStartOfDay()), priceDate, now, now));
+
+        int count = staged != null ? staged : 0;
+        log.info("Staged {} watchlist alerts for {}", count, priceDate);
+        return count;
+    }
+}
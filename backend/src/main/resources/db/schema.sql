@@ -0,0 +1,20 @@
+-- Schema objects Hibernate's ddl-auto cannot express (partial indexes and the like).
+-- Runs after Hibernate on every startup, so every statement must be idempotent.
+
+-- Accent-insensitive city matching in the deal feed
+CREATE EXTENSION IF NOT EXISTS unaccent;
+
+-- Notification feed: keyset pagination over a user's live notifications
+CREATE INDEX IF NOT EXISTS idx_notification_user_created_active
+    ON notification (user_id, created_at DESC, id DESC)
+    WHERE deleted_at IS NULL;
+
+-- Admin contact inbox: keyset pagination over live messages, and over unread ones for the
+-- unread view and badge count
+CREATE INDEX IF NOT EXISTS idx_contact_message_created_active
+    ON contact_message (created_at DESC, id DESC)
+    WHERE deleted_at IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_contact_message_created_unread
+    ON contact_message (created_at DESC, id DESC)
+    WHERE read_at IS NULL AND deleted_at IS NULL;
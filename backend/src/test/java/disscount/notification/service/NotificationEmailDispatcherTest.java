@@ -0,0 +1,166 @@
+package disscount.notification.service;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import disscount.notification.dao.NotificationCounterRepository;
+
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the dispatcher against an in-process GreenMail SMTP server; the pending-digest
+ * query is stubbed with rows shaped like the real result set.
+ */
+class NotificationEmailDispatcherTest {
+
+    @RegisterExtension
+    static final GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final NotificationCounterRepository counterRepository = mock(NotificationCounterRepository.class);
+    private final List<ResultSet> pendingRows = new ArrayList<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void stubPendingQuery() {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(), any())).thenAnswer(invocation -> {
+            RowMapper<Object> mapper = invocation.getArgument(1);
+            List<Object> digests = new ArrayList<>();
+            for (int i = 0; i < pendingRows.size(); i++) {
+                digests.add(mapper.mapRow(pendingRows.get(i), i));
+            }
+            return digests;
+        });
+    }
+
+    @Test
+    void sendsOneDigestPerUserAndAdvancesWatermark() throws Exception {
+        UUID ana = UUID.randomUUID();
+        UUID ivan = UUID.randomUUID();
+        LocalDateTime anaUpTo = LocalDateTime.of(2025, 3, 1, 8, 0);
+        LocalDateTime ivanUpTo = LocalDateTime.of(2025, 3, 1, 9, 30);
+        pendingRows.add(row(ana, "ana@example.com", anaUpTo, 2, "Mlijeko je pojeftinilo", "Kruh je pojeftinio"));
+        pendingRows.add(row(ivan, "ivan@example.org", ivanUpTo, 1, "Kava je na akciji"));
+
+        NotificationEmailDispatcher dispatcher = dispatcher(true, 100);
+        dispatcher.dispatchPending();
+        dispatcher.shutdown();
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertThat(received).hasSize(2);
+        MimeMessage toAna = null;
+        for (MimeMessage message : received) {
+            if (GreenMailUtil.getAddressList(message.getAllRecipients()).contains("ana@example.com")) {
+                toAna = message;
+            }
+        }
+        assertThat(toAna).isNotNull();
+        assertThat(toAna.getSubject()).isEqualTo("Disscount: 2 nove obavijesti");
+        assertThat((String) toAna.getContent()).contains("Mlijeko je pojeftinilo").contains("Kruh je pojeftinio");
+
+        verify(counterRepository).advanceEmailedUpTo(ana, anaUpTo);
+        verify(counterRepository).advanceEmailedUpTo(ivan, ivanUpTo);
+    }
+
+    @Test
+    void digestCountsEntriesBeyondTheListedOnes() throws Exception {
+        String[] listed = IntStream.range(0, 50).mapToObj(i -> "Obavijest " + i).toArray(String[]::new);
+        pendingRows.add(row(UUID.randomUUID(), "ana@example.com", LocalDateTime.now(), 60, listed));
+
+        NotificationEmailDispatcher dispatcher = dispatcher(true, 100);
+        dispatcher.dispatchPending();
+        dispatcher.shutdown();
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertThat(received).hasSize(1);
+        assertThat(received[0].getSubject()).isEqualTo("Disscount: 60 nove obavijesti");
+        assertThat((String) received[0].getContent()).contains("Obavijest 49").contains("i još 10 obavijesti");
+    }
+
+    @Test
+    void pacesSendsToTheSameDomain() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            pendingRows.add(row(UUID.randomUUID(), "user" + i + "@example.com", LocalDateTime.now(), 1, "Obavijest"));
+        }
+
+        NotificationEmailDispatcher dispatcher = dispatcher(true, 5);
+        long start = System.nanoTime();
+        dispatcher.dispatchPending();
+        dispatcher.shutdown();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(greenMail.getReceivedMessages()).hasSize(3);
+        // Three sends at five per second: the third waits for two 200 ms slots
+        assertThat(elapsedMs).isGreaterThanOrEqualTo(400);
+    }
+
+    @Test
+    void doesNothingWhenDisabled() throws Exception {
+        pendingRows.add(row(UUID.randomUUID(), "ana@example.com", LocalDateTime.now(), 1, "Obavijest"));
+
+        NotificationEmailDispatcher dispatcher = dispatcher(false, 100);
+        dispatcher.dispatchPending();
+        dispatcher.shutdown();
+
+        assertThat(greenMail.getReceivedMessages()).isEmpty();
+        verifyNoInteractions(jdbcTemplate);
+        verify(counterRepository, never()).advanceEmailedUpTo(any(), any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private NotificationEmailDispatcher dispatcher(boolean enabled, double perDomainPerSecond) {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost(greenMail.getSmtp().getBindTo());
+        mailSender.setPort(greenMail.getSmtp().getPort());
+
+        ObjectProvider<JavaMailSender> mailSenderProvider = mock(ObjectProvider.class);
+        when(mailSenderProvider.getIfAvailable()).thenReturn(mailSender);
+
+        return new NotificationEmailDispatcher(jdbcTemplate,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                counterRepository, mailSenderProvider, enabled, "obavijesti@disscount.me", 4, perDomainPerSecond);
+    }
+
+    private static ResultSet row(UUID userId, String email, LocalDateTime upTo, int total, String... messages)
+            throws SQLException {
+        Array messageArray = mock(Array.class);
+        when(messageArray.getArray()).thenReturn(messages);
+
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getObject("user_id", UUID.class)).thenReturn(userId);
+        when(rs.getString("email")).thenReturn(email);
+        when(rs.getArray("messages")).thenReturn(messageArray);
+        when(rs.getInt("total")).thenReturn(total);
+        when(rs.getTimestamp("up_to")).thenReturn(Timestamp.valueOf(upTo));
+        return rs;
+    }
+}
@@ -0,0 +1,169 @@
+package disscount.notification.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import disscount.notification.dto.NotificationDto;
+import disscount.pushSubscription.dao.PushSubscriptionRepository;
+import disscount.pushSubscription.domain.PushSubscription;
+import disscount.pushSubscription.service.MockPushService;
+import disscount.pushSubscription.service.WebPushSender;
+import disscount.user.domain.User;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the dispatcher with a real {@link WebPushSender} against {@link MockPushService};
+ * only the subscription repository is mocked.
+ */
+class NotificationPushDispatcherTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final PushSubscriptionRepository repository = mock(PushSubscriptionRepository.class);
+    private final List<PushSubscription> subscriptions = new ArrayList<>();
+
+    private MockPushService pushService;
+    private NotificationPushDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        pushService = new MockPushService();
+        String[] vapidKeys = MockPushService.vapidKeys();
+        WebPushSender sender = new WebPushSender(vapidKeys[0], vapidKeys[1], "mailto:obavijesti@disscount.me");
+
+        when(repository.findDeliverableByUserIds(anyCollection())).thenAnswer(invocation -> {
+            List<UUID> userIds = List.copyOf(invocation.<Collection<UUID>>getArgument(0));
+            return subscriptions.stream().filter(s -> userIds.contains(s.getUser().getId())).toList();
+        });
+
+        dispatcher = new NotificationPushDispatcher(sender, repository,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), objectMapper);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pushService.close();
+    }
+
+    @Test
+    void sendsOnePushPerDevicePerWindow() throws Exception {
+        UUID ana = UUID.randomUUID();
+        MockPushService.Subscription phone = subscribe(ana, "ana-phone", 201);
+        MockPushService.Subscription laptop = subscribe(ana, "ana-laptop", 201);
+
+        notify(ana, "Mlijeko je pojeftinilo");
+        notify(ana, "Kruh je pojeftinio");
+        notify(ana, "Kava je na akciji");
+        dispatcher.flush();
+
+        for (MockPushService.Subscription device : List.of(phone, laptop)) {
+            List<MockPushService.Delivery> deliveries = pushService.deliveriesTo(device.endpoint());
+            assertThat(deliveries).hasSize(1);
+            JsonNode payload = objectMapper.readTree(pushService.decrypt(deliveries.get(0)));
+            assertThat(payload.get("count").asInt()).isEqualTo(3);
+            assertThat(payload.get("body").asText()).isEqualTo("Imate 3 nove obavijesti");
+        }
+
+        // The batch was handed out; an empty window sends nothing
+        dispatcher.flush();
+        assertThat(pushService.deliveries()).hasSize(2);
+    }
+
+    @Test
+    void singleNotificationIsPushedAsItsMessage() throws Exception {
+        UUID ivan = UUID.randomUUID();
+        MockPushService.Subscription phone = subscribe(ivan, "ivan-phone", 201);
+
+        notify(ivan, "Kava je na akciji");
+        dispatcher.flush();
+
+        JsonNode payload = objectMapper.readTree(pushService.decrypt(pushService.deliveriesTo(phone.endpoint()).get(0)));
+        assertThat(payload.get("count").asInt()).isEqualTo(1);
+        assertThat(payload.get("body").asText()).isEqualTo("Kava je na akciji");
+    }
+
+    @Test
+    void prunesEndpointsReportedAsGone() throws Exception {
+        UUID ana = UUID.randomUUID();
+        UUID ivan = UUID.randomUUID();
+        MockPushService.Subscription active = subscribe(ana, "ana-phone", 201);
+        MockPushService.Subscription uninstalled = subscribe(ana, "ana-old-phone", 410);
+        MockPushService.Subscription expired = subscribe(ivan, "ivan-phone", 404);
+        subscribe(ivan, "ivan-flaky", 500);
+
+        notify(ana, "Mlijeko je pojeftinilo");
+        notify(ivan, "Kruh je pojeftinio");
+        dispatcher.flush();
+
+        assertThat(pushService.deliveriesTo(active.endpoint())).hasSize(1);
+        // Server errors are transient and keep their subscription
+        verify(repository).deleteByEndpointIn(Set.of(uninstalled.endpoint(), expired.endpoint()));
+    }
+
+    @Test
+    void deletesNothingWhenEveryPushIsDelivered() throws Exception {
+        UUID ana = UUID.randomUUID();
+        subscribe(ana, "ana-phone", 201);
+
+        notify(ana, "Mlijeko je pojeftinilo");
+        dispatcher.flush();
+
+        verify(repository, never()).deleteByEndpointIn(any());
+    }
+
+    @Test
+    void badVapidPrivateKeyPrunesNothing() throws Exception {
+        UUID ana = UUID.randomUUID();
+        subscribe(ana, "ana-phone", 201);
+        WebPushSender misconfigured = new WebPushSender(MockPushService.vapidKeys()[0], "bm90LWEta2V5",
+                "mailto:obavijesti@disscount.me");
+        NotificationPushDispatcher dispatcher = new NotificationPushDispatcher(misconfigured, repository,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), objectMapper);
+
+        notify(dispatcher, ana, "Mlijeko je pojeftinilo");
+        dispatcher.flush();
+
+        assertThat(pushService.deliveries()).isEmpty();
+        verify(repository, never()).deleteByEndpointIn(any());
+    }
+
+    private MockPushService.Subscription subscribe(UUID userId, String name, int status) throws Exception {
+        MockPushService.Subscription subscription = pushService.subscribe(name, status);
+        subscriptions.add(PushSubscription.builder()
+                .user(User.builder().id(userId).build())
+                .endpoint(subscription.endpoint())
+                .p256dh(subscription.p256dh())
+                .auth(subscription.auth())
+                .build());
+        return subscription;
+    }
+
+    private void notify(UUID userId, String message) {
+        notify(dispatcher, userId, message);
+    }
+
+    private static void notify(NotificationPushDispatcher dispatcher, UUID userId, String message) {
+        dispatcher.onNotificationCreated(new NotificationCreatedEvent(NotificationDto.builder()
+                .id(UUID.randomUUID())
+                .userId(userId)
+                .message(message)
+                .build()));
+    }
+}
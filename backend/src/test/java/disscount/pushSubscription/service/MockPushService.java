@@ -0,0 +1,163 @@
+package disscount.pushSubscription.service;
+
+import com.sun.net.httpserver.HttpServer;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyAgreement;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.SecureRandom;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Local stand-in for a push service (FCM, Mozilla autopush, ...). Every subscription it
+ * hands out is an endpoint on an embedded HTTP server with its own browser key pair, so
+ * tests can answer with any status and decrypt what was delivered.
+ */
+public class MockPushService implements AutoCloseable {
+
+    private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    public record Subscription(String endpoint, String p256dh, String auth) {
+    }
+
+    public record Delivery(String endpoint, Map<String, List<String>> headers, byte[] body) {
+
+        public String header(String name) {
+            return headers.entrySet().stream()
+                    .filter(e -> e.getKey().equalsIgnoreCase(name))
+                    .map(e -> e.getValue().get(0))
+                    .findFirst()
+                    .orElse(null);
+        }
+    }
+
+    private record BrowserKeys(KeyPair keyPair, byte[] publicPoint, byte[] authSecret) {
+    }
+
+    private final HttpServer server;
+    private final List<Delivery> deliveries = new CopyOnWriteArrayList<>();
+    private final Map<String, Integer> statusByEndpoint = new ConcurrentHashMap<>();
+    private final Map<String, BrowserKeys> keysByEndpoint = new ConcurrentHashMap<>();
+
+    public MockPushService() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/push/", exchange -> {
+            String endpoint = baseUrl() + exchange.getRequestURI().getPath();
+            byte[] body = exchange.getRequestBody().readAllBytes();
+            deliveries.add(new Delivery(endpoint, Map.copyOf(exchange.getRequestHeaders()), body));
+            exchange.sendResponseHeaders(statusByEndpoint.getOrDefault(endpoint, 201), -1);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    /**
+     * VAPID application server keys as configured in notification.push.*: {public, private}.
+     */
+    public static String[] vapidKeys() throws GeneralSecurityException {
+        KeyPair keyPair = generateKeyPair();
+        byte[] scalar = ((ECPrivateKey) keyPair.getPrivate()).getS().toByteArray();
+        byte[] privateKey = new byte[32];
+        int length = Math.min(scalar.length, 32);
+        System.arraycopy(scalar, scalar.length - length, privateKey, 32 - length, length);
+        return new String[]{
+                BASE64_URL.encodeToString(WebPushCrypto.encodePoint((ECPublicKey) keyPair.getPublic())),
+                BASE64_URL.encodeToString(privateKey)};
+    }
+
+    /**
+     * A new browser subscription whose endpoint answers with status.
+     */
+    public Subscription subscribe(String name, int status) throws GeneralSecurityException {
+        KeyPair keyPair = generateKeyPair();
+        byte[] publicPoint = WebPushCrypto.encodePoint((ECPublicKey) keyPair.getPublic());
+        byte[] authSecret = new byte[16];
+        RANDOM.nextBytes(authSecret);
+
+        String endpoint = baseUrl() + "/push/" + name;
+        keysByEndpoint.put(endpoint, new BrowserKeys(keyPair, publicPoint, authSecret));
+        statusByEndpoint.put(endpoint, status);
+        return new Subscription(endpoint, BASE64_URL.encodeToString(publicPoint), BASE64_URL.encodeToString(authSecret));
+    }
+
+    public String baseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    public List<Delivery> deliveries() {
+        return List.copyOf(deliveries);
+    }
+
+    public List<Delivery> deliveriesTo(String endpoint) {
+        return deliveries.stream().filter(d -> d.endpoint().equals(endpoint)).toList();
+    }
+
+    /**
+     * Decrypts an aes128gcm body (RFC 8291) the way the subscribed browser would.
+     */
+    public String decrypt(Delivery delivery) throws GeneralSecurityException {
+        BrowserKeys keys = keysByEndpoint.get(delivery.endpoint());
+        ByteBuffer body = ByteBuffer.wrap(delivery.body());
+        byte[] salt = new byte[16];
+        body.get(salt);
+        body.getInt();
+        byte[] asPublic = new byte[body.get()];
+        body.get(asPublic);
+        byte[] ciphertext = new byte[body.remaining()];
+        body.get(ciphertext);
+
+        KeyAgreement agreement = KeyAgreement.getInstance("ECDH");
+        agreement.init(keys.keyPair().getPrivate());
+        agreement.doPhase(WebPushCrypto.toPublicKey(asPublic), true);
+        byte[] ecdhSecret = agreement.generateSecret();
+
+        ByteArrayOutputStream keyInfo = new ByteArrayOutputStream();
+        keyInfo.writeBytes("WebPush: info\0".getBytes(StandardCharsets.US_ASCII));
+        keyInfo.writeBytes(keys.publicPoint());
+        keyInfo.writeBytes(asPublic);
+        byte[] ikm = WebPushCrypto.hkdf(keys.authSecret(), ecdhSecret, keyInfo.toByteArray(), 32);
+        byte[] cek = WebPushCrypto.hkdf(salt, ikm, "Content-Encoding: aes128gcm\0".getBytes(StandardCharsets.US_ASCII), 16);
+        byte[] nonce = WebPushCrypto.hkdf(salt, ikm, "Content-Encoding: nonce\0".getBytes(StandardCharsets.US_ASCII), 12);
+
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.DECRYPT_MODE, new SecretKeySpec(cek, "AES"), new GCMParameterSpec(128, nonce));
+        byte[] padded = cipher.doFinal(ciphertext);
+
+        // Payload, then the 0x02 last-record delimiter, then optional zero padding
+        int end = padded.length - 1;
+        while (padded[end] == 0) {
+            end--;
+        }
+        return new String(Arrays.copyOf(padded, end), StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private static KeyPair generateKeyPair() throws GeneralSecurityException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        return generator.generateKeyPair();
+    }
+}